@@ -0,0 +1,95 @@
+package com.example.petlog.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 공간 인덱스 반경 검색 vs 전체 선형 탐색 (100k / 1M 가상 프로필, 서울 권역에 고르게 분포)
+ * 실행: ./gradlew jmh -PjmhIncludes=PetMateGeoIndexBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class PetMateGeoIndexBenchmark {
+
+    private static final double MIN_LAT = 37.40;
+    private static final double MIN_LNG = 126.75;
+    private static final double SPAN_DEG = 0.45; // 약 50km x 40km
+    private static final double RADIUS_KM = 3.0;
+
+    private static final int QUERIES = 1 << 10;
+    private static final int VERIFY_QUERIES = 20;
+
+    @Param({"100000", "1000000"})
+    private int profiles;
+
+    private PetMateGeoIndex index;
+    private double[] lat;
+    private double[] lng;
+    private double[][] queries;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        index = new PetMateGeoIndex(null);
+        lat = new double[profiles];
+        lng = new double[profiles];
+        for (int i = 0; i < profiles; i++) {
+            lat[i] = MIN_LAT + random.nextDouble() * SPAN_DEG;
+            lng[i] = MIN_LNG + random.nextDouble() * SPAN_DEG;
+            index.upsert((long) i, lat[i], lng[i]);
+        }
+
+        queries = new double[QUERIES][];
+        for (int i = 0; i < QUERIES; i++) {
+            queries[i] = new double[]{MIN_LAT + random.nextDouble() * SPAN_DEG, MIN_LNG + random.nextDouble() * SPAN_DEG};
+        }
+
+        // 결과가 선형 탐색과 같은지 먼저 확인
+        for (int i = 0; i < VERIFY_QUERIES; i++) {
+            int indexed = index.findWithin(queries[i][0], queries[i][1], RADIUS_KM, null).size();
+            int scanned = scan(queries[i][0], queries[i][1]);
+            if (indexed != scanned) {
+                throw new IllegalStateException("인덱스 결과 불일치: index=" + indexed + ", scan=" + scanned);
+            }
+        }
+    }
+
+    @Benchmark
+    public int indexFindWithin() {
+        double[] query = queries[next++ & (QUERIES - 1)];
+        return index.findWithin(query[0], query[1], RADIUS_KM, null).size();
+    }
+
+    @Benchmark
+    public int linearScan() {
+        double[] query = queries[next++ & (QUERIES - 1)];
+        return scan(query[0], query[1]);
+    }
+
+    private int scan(double qLat, double qLng) {
+        int hits = 0;
+        for (int i = 0; i < lat.length; i++) {
+            if (PetMateGeoIndex.distanceKm(qLat, qLng, lat[i], lng[i]) < RADIUS_KM) {
+                hits++;
+            }
+        }
+        return hits;
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.petlog.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 후보 10k 명 점수 계산 + 상위 K 선정 시간
+ * 실행: ./gradlew jmh -PjmhIncludes=PetMateScoringEngineBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PetMateScoringEngineBenchmark {
+
+    private static final int CANDIDATES = 10_000;
+    private static final int TOP_K = 20;
+    private static final Long VIEWER_ID = -1L;
+
+    private static final String[] BREEDS = {"말티즈", "푸들", "웰시코기", "진돗개", "골든리트리버", "믹스견"};
+
+    private PetMateScoringEngine engine;
+    private long[] ids;
+    private double[] distances;
+    private int[] scores;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        engine = new PetMateScoringEngine(null);
+        LocalDateTime now = LocalDateTime.now();
+        engine.update(VIEWER_ID, 3, "푸들", 4, now);
+
+        ids = new long[CANDIDATES];
+        distances = new double[CANDIDATES];
+        for (int i = 0; i < CANDIDATES; i++) {
+            ids[i] = i;
+            distances[i] = random.nextDouble() * 3.0;
+            engine.update((long) i, 1 + random.nextInt(5), BREEDS[random.nextInt(BREEDS.length)],
+                    random.nextInt(15), now.minusMinutes(random.nextInt(7 * 24 * 60)));
+        }
+        scores = engine.score(VIEWER_ID, ids, distances);
+    }
+
+    @Benchmark
+    public int[] score() {
+        return engine.score(VIEWER_ID, ids, distances);
+    }
+
+    @Benchmark
+    public int[] topK() {
+        return PetMateScoringEngine.topK(scores, distances, TOP_K);
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.petlog.client;
+
+import com.example.petlog.dto.response.UserInfoResponse;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * UserServiceClient 캐시 데코레이터
+ * - 채팅 목록/메시지 변환 시 같은 사용자를 메시지마다 반복 조회하지 않도록 사용자 정보를 메모리에 보관
+ * - refresh 시간이 지난 항목은 기존 값을 바로 돌려주고 백그라운드에서 다시 조회 (stale-while-revalidate)
+ * - 갱신이 실패하면 expire 시간까지 기존 값을 계속 사용
+ *
+ * 메트릭: cache.gets / cache.puts / cache.evictions 등 (cache=userInfo)
+ */
+@Slf4j
+@Primary
+@Component
+public class CachingUserServiceClient implements UserServiceClient {
+
+    private final UserServiceClient delegate;
+    private final LoadingCache<Long, UserInfoResponse> userInfos;
+
+    public CachingUserServiceClient(@Qualifier(FEIGN_QUALIFIER) UserServiceClient delegate,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${petmate.user-cache.maximum-size:10000}") long maximumSize,
+                                    @Value("${petmate.user-cache.refresh-after-seconds:60}") long refreshAfterSeconds,
+                                    @Value("${petmate.user-cache.expire-after-seconds:600}") long expireAfterSeconds) {
+        this.delegate = delegate;
+        this.userInfos = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .refreshAfterWrite(Duration.ofSeconds(refreshAfterSeconds))
+                .expireAfterWrite(Duration.ofSeconds(expireAfterSeconds))
+                .recordStats()
+                .build(new CacheLoader<>() {
+                    @Override
+                    public UserInfoResponse load(Long userId) {
+                        return loadOne(userId);
+                    }
+
+                    @Override
+                    public Map<Long, UserInfoResponse> loadAll(Set<? extends Long> userIds) {
+                        return loadMany(userIds);
+                    }
+                });
+        CaffeineCacheMetrics.monitor(meterRegistry, userInfos, "userInfo");
+    }
+
+    @Override
+    public boolean checkUserExists(Long userId) {
+        return delegate.checkUserExists(userId);
+    }
+
+    /**
+     * 캐시된 사용자 정보 (없으면 User Service 호출, 실패 시 예외는 그대로 전달하고 캐시하지 않음)
+     */
+    @Override
+    public UserInfoResponse getUserInfo(Long userId) {
+        if (userId == null) return delegate.getUserInfo(null);
+        return userInfos.get(userId);
+    }
+
+    /**
+     * 사용자 정보 일괄 조회 - 캐시에 없는 사용자만 모아서 User Service 일괄 API 한 번 호출
+     * (일괄 API 실패 시 예외 전달, 응답에 없는 사용자는 결과에서 빠짐)
+     */
+    @Override
+    public List<UserInfoResponse> getUsersInfo(List<Long> userIds) {
+        if (userIds == null || userIds.isEmpty()) return List.of();
+        return new ArrayList<>(userInfos.getAll(userIds.stream().filter(Objects::nonNull).toList()).values());
+    }
+
+    /**
+     * 사용자 정보가 바뀐 것을 알았을 때 캐시에서 제거
+     */
+    public void evict(Long userId) {
+        if (userId != null) userInfos.invalidate(userId);
+    }
+
+    private UserInfoResponse loadOne(Long userId) {
+        log.debug("User Service 사용자 정보 조회 (캐시 미스/갱신) -> UserId: {}", userId);
+        UserInfoResponse userInfo = delegate.getUserInfo(userId);
+        // 일괄 조회 결과와 섞여도 id 로 찾을 수 있도록 채움
+        if (userInfo != null && userInfo.getId() == null) userInfo.setId(userId);
+        return userInfo;
+    }
+
+    private Map<Long, UserInfoResponse> loadMany(Set<? extends Long> userIds) {
+        log.debug("User Service 사용자 정보 일괄 조회 (캐시 미스) -> {}명", userIds.size());
+        List<UserInfoResponse> responses = delegate.getUsersInfo(new ArrayList<>(userIds));
+        Map<Long, UserInfoResponse> loaded = new HashMap<>();
+        if (responses == null) return loaded;
+        for (UserInfoResponse response : responses) {
+            // 요청하지 않은 id 는 캐시에 넣지 않음
+            if (response != null && response.getId() != null && userIds.contains(response.getId())) {
+                loaded.put(response.getId(), response);
+            }
+        }
+        return loaded;
+    }
+}
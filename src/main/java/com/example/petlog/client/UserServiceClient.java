@@ -4,12 +4,20 @@ import com.example.petlog.dto.response.UserInfoResponse;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+
+import java.util.List;
 
 // [수정] url 설정에 기본값 추가 (설정 파일에 값이 없으면 localhost:8000 사용)
 // 8000번(Gateway)으로 보내면 Gateway가 알아서 'user-service'로 라우팅해줍니다.
-@FeignClient(name = "user-service", url = "${external.user-service.url:http://localhost:8000}")
+// [성능] 서비스에서는 CachingUserServiceClient(@Primary)가 주입되고, Feign 원본은 qualifier 로만 꺼냄
+@FeignClient(name = "user-service", url = "${external.user-service.url:http://localhost:8000}",
+        qualifiers = UserServiceClient.FEIGN_QUALIFIER, primary = false)
 public interface UserServiceClient {
 
+    String FEIGN_QUALIFIER = "userServiceFeignClient";
+
     @GetMapping("/api/users/{userId}/exists")
     boolean checkUserExists(@PathVariable("userId") Long userId);
 
@@ -18,4 +26,10 @@ public interface UserServiceClient {
      */
     @GetMapping("/api/users/{userId}")
     UserInfoResponse getUserInfo(@PathVariable("userId") Long userId);
+
+    /**
+     * 사용자 상세 정보 일괄 조회 (응답에 id 가 포함되어야 매핑됨)
+     */
+    @PostMapping("/api/users/batch")
+    List<UserInfoResponse> getUsersInfo(@RequestBody List<Long> userIds);
 }
\ No newline at end of file
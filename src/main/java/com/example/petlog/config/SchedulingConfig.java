@@ -0,0 +1,21 @@
+package com.example.petlog.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+
+    // [중요] WebSocket 브로커도 TaskScheduler 빈을 만들기 때문에
+    // @Scheduled 작업이 브로커 하트비트 스레드를 쓰지 않도록 "taskScheduler" 이름으로 별도 등록
+    @Bean(name = "taskScheduler")
+    public ThreadPoolTaskScheduler taskScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(4);
+        scheduler.setThreadNamePrefix("petmate-scheduler-");
+        return scheduler;
+    }
+}
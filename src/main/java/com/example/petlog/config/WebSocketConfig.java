@@ -22,7 +22,7 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
     public void configureMessageBroker(MessageBrokerRegistry registry) {
         // 메시지 구독 요청 url -> /sub
         registry.enableSimpleBroker("/sub");
-        // 메시지 발행 요청 url -> /pub
+        // 메시지 발행 요청 url -> /pub (/pub/chat/message 채팅, /pub/petmate/location 위치 스트림)
         registry.setApplicationDestinationPrefixes("/pub");
     }
 }
\ No newline at end of file
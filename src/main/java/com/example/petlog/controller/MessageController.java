@@ -2,7 +2,12 @@ package com.example.petlog.controller;
 
 import com.example.petlog.dto.request.MessageRequest;
 import com.example.petlog.dto.response.ChatRoomResponse;
+import com.example.petlog.dto.response.MessageAckResponse;
+import com.example.petlog.dto.response.MessagePageResponse;
 import com.example.petlog.dto.response.MessageResponse;
+import com.example.petlog.exception.BusinessException;
+import com.example.petlog.exception.ErrorCode;
+import com.example.petlog.service.ChatMessageWriteBehind;
 import com.example.petlog.service.MessageService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -33,7 +38,7 @@ public class MessageController {
      */
     @GetMapping("/rooms/{userId}")
     public ResponseEntity<List<ChatRoomResponse>> getChatRooms(@PathVariable("userId") Long userId) {
-        System.out.println("🔍 [API] 채팅방 목록 조회 요청 - UserID: {}"+ userId.toString());
+        log.debug("[API] 채팅방 목록 조회 요청 - UserID: {}", userId);
         return ResponseEntity.ok(messageService.getChatRooms(userId));
     }
 
@@ -51,6 +56,42 @@ public class MessageController {
         return ResponseEntity.ok(messageService.getMessages(chatRoomId, userId));
     }
 
+    /**
+     * 2-1. 메시지 내역 페이지 조회 (키셋)
+     * URL: GET /api/messages/room/{chatRoomId}/history?before={messageId}&limit=30
+     * before / after 중 하나만 사용, 둘 다 없으면 최신 메시지부터
+     */
+    @GetMapping("/room/{chatRoomId}/history")
+    public ResponseEntity<MessagePageResponse> getMessagePage(
+            @PathVariable("chatRoomId") Long chatRoomId,
+            @RequestParam("userId") Long userId,
+            @RequestParam(value = "before", required = false) Long beforeId,
+            @RequestParam(value = "after", required = false) Long afterId,
+            @RequestParam(value = "limit", defaultValue = "30") int limit) {
+        return ResponseEntity.ok(messageService.getMessagePage(chatRoomId, userId, beforeId, afterId, limit));
+    }
+
+    /**
+     * 2-2. 재연결 동기화 (방 순번 seq 이후 메시지)
+     * URL: GET /api/messages/room/{chatRoomId}/since?userId={userId}&seq={마지막으로 받은 seq}&limit=100
+     *
+     * 재구독 규칙: 연결이 끊겼다가 다시 붙으면
+     *   1) /sub/chat/room/{chatRoomId} 를 먼저 다시 구독하고
+     *   2) 이 API 로 마지막으로 받은 seq 이후 메시지를 받아 (hasMore 면 마지막 seq 로 이어서 조회)
+     *   3) 구독으로 들어온 메시지와 seq 기준으로 합침 (같은 seq 는 한 번만)
+     * 실시간 수신 중 seq 가 이전 seq + 1 이 아니면 같은 방식으로 빈 구간만 조회
+     * 순번은 커밋 순서대로 보이므로(같은 방은 커밋될 때까지 다음 순번 발급을 막음),
+     * 조회 결과의 마지막 seq 까지 중 응답에 없는 번호는 저장되지 않은 메시지(전송 실패)이므로 다시 기다리지 않음
+     */
+    @GetMapping("/room/{chatRoomId}/since")
+    public ResponseEntity<MessagePageResponse> getMessagesSince(
+            @PathVariable("chatRoomId") Long chatRoomId,
+            @RequestParam("userId") Long userId,
+            @RequestParam(value = "seq", defaultValue = "0") long seq,
+            @RequestParam(value = "limit", defaultValue = "100") int limit) {
+        return ResponseEntity.ok(messageService.getMessagesSince(chatRoomId, userId, seq, limit));
+    }
+
     /**
      * 3. 채팅방 생성 또는 조회
      * URL: POST /api/messages/room
@@ -128,7 +169,20 @@ public class MessageController {
     @MessageMapping("/chat/message")
     public void handleSocketMessage(MessageRequest request) {
         log.info("📨 [Socket] 메시지 수신: {}", request.getContent());
-        MessageResponse response = messageService.sendMessage(request);
+        MessageResponse response;
+        try {
+            response = messageService.sendMessage(request);
+        } catch (BusinessException e) {
+            // write-behind 버퍼가 가득 찬 경우: 보낸 사람에게만 거부 알림 (클라이언트가 다시 전송)
+            if (e.getErrorCode() != ErrorCode.CHAT_BUFFER_FULL) throw e;
+            messagingTemplate.convertAndSend(ChatMessageWriteBehind.ACK_DESTINATION_PREFIX + request.getSenderId(),
+                    MessageAckResponse.builder()
+                            .chatRoomId(request.getChatRoomId())
+                            .clientMessageId(request.getClientMessageId())
+                            .status(MessageAckResponse.REJECTED)
+                            .build());
+            return;
+        }
         messagingTemplate.convertAndSend("/sub/chat/room/" + response.getChatRoomId(), response);
     }
 }
\ No newline at end of file
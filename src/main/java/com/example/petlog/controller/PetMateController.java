@@ -1,16 +1,22 @@
 package com.example.petlog.controller;
 
 import com.example.petlog.dto.request.LikeRequest;
+import com.example.petlog.dto.request.LocationUpdateRequest;
 import com.example.petlog.dto.request.PetMateFilterRequest;
 import com.example.petlog.dto.request.PetMateRequest;
+import com.example.petlog.dto.request.SeenRequest;
+import com.example.petlog.dto.response.CandidatePageResponse;
 import com.example.petlog.dto.response.MatchResponse;
 import com.example.petlog.dto.response.PendingRequestResponse;
 import com.example.petlog.dto.response.PetMateResponse;
 import com.example.petlog.service.PetMateService;
+import com.example.petlog.service.PresenceRegistry;
 import lombok.Data; // [추가]
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
+import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -50,6 +56,25 @@ public class PetMateController {
         return ResponseEntity.ok(petMateService.getCandidates(userId, filter));
     }
 
+    // 1-1. 후보 추천 조회 (커서 기반 페이지)
+    @PostMapping("/candidates/{userId}/page")
+    public ResponseEntity<CandidatePageResponse> getCandidatePage(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestBody PetMateFilterRequest filter) {
+        return ResponseEntity.ok(petMateService.getCandidatePage(userId, filter, cursor, size));
+    }
+
+    // 1-2. 본/넘긴 후보 기록 (이후 후보 조회에서 제외)
+    @PostMapping("/candidates/{userId}/seen")
+    public ResponseEntity<Void> markSeen(
+            @PathVariable Long userId,
+            @RequestBody SeenRequest request) {
+        petMateService.markSeen(userId, request);
+        return ResponseEntity.ok().build();
+    }
+
     // 2. 좋아요 요청
     @PostMapping("/like")
     public ResponseEntity<MatchResponse> like(@RequestBody LikeRequest request) {
@@ -62,16 +87,22 @@ public class PetMateController {
         return ResponseEntity.ok(petMateService.unlike(request));
     }
 
-    // 4. 내가 보낸 요청 목록
+    // 4. 내가 보낸 요청 목록 (size 를 주면 페이지 단위)
     @GetMapping("/requests/{userId}/sent")
-    public ResponseEntity<List<PendingRequestResponse>> getSentRequests(@PathVariable Long userId) {
-        return ResponseEntity.ok(petMateService.getSentRequests(userId));
+    public ResponseEntity<List<PendingRequestResponse>> getSentRequests(
+            @PathVariable Long userId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(petMateService.getSentRequests(userId, page, size));
     }
 
-    // 5. 나에게 온 요청 목록
+    // 5. 나에게 온 요청 목록 (size 를 주면 페이지 단위)
     @GetMapping("/requests/{userId}")
-    public ResponseEntity<List<PendingRequestResponse>> getPendingRequests(@PathVariable Long userId) {
-        return ResponseEntity.ok(petMateService.getPendingRequests(userId));
+    public ResponseEntity<List<PendingRequestResponse>> getPendingRequests(
+            @PathVariable Long userId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(petMateService.getPendingRequests(userId, page, size));
     }
 
     // 6. 나에게 온 요청 개수 (배지용)
@@ -80,10 +111,13 @@ public class PetMateController {
         return ResponseEntity.ok(petMateService.getPendingRequestsCount(userId));
     }
 
-    // 8. 매칭된 친구 목록
+    // 8. 매칭된 친구 목록 (size 를 주면 페이지 단위)
     @GetMapping("/matches/{userId}")
-    public ResponseEntity<List<MatchResponse>> getMatches(@PathVariable Long userId) {
-        return ResponseEntity.ok(petMateService.getMatches(userId));
+    public ResponseEntity<List<MatchResponse>> getMatches(
+            @PathVariable Long userId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(petMateService.getMatches(userId, page, size));
     }
 
     // 9. 내가 좋아요한 유저 ID 목록
@@ -125,4 +159,21 @@ public class PetMateController {
         petMateService.updateOnlineStatus(userId, isOnline);
         return ResponseEntity.ok().build();
     }
+
+    // ==========================================
+    //  WebSocket Handler
+    // ==========================================
+
+    // 위치 스트림 (/pub/petmate/location) - 조금 움직였거나 너무 자주 온 값은 서버에서 버림
+    @MessageMapping("/petmate/location")
+    public void handleLocationStream(LocationUpdateRequest request) {
+        petMateService.streamLocation(request.getUserId(), request.getLatitude(), request.getLongitude());
+    }
+
+    // 접속 유지 신호 (/pub/petmate/heartbeat) - CONNECT 또는 이 프레임 헤더의 userId 로 사용자 식별
+    @MessageMapping("/petmate/heartbeat")
+    public void handleHeartbeat(SimpMessageHeaderAccessor accessor) {
+        petMateService.heartbeat(accessor.getSessionId(),
+                accessor.getFirstNativeHeader(PresenceRegistry.USER_ID_HEADER));
+    }
 }
\ No newline at end of file
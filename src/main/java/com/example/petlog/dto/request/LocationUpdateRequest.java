@@ -0,0 +1,15 @@
+package com.example.petlog.dto.request;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LocationUpdateRequest {
+
+    private Long userId;
+    private Double latitude;
+    private Double longitude;
+}
@@ -13,4 +13,5 @@ public class MessageRequest {
     private Long senderId;
     private String content;
     private String messageType; // TEXT, IMAGE, EMOJI
+    private String clientMessageId; // (선택) 저장 확인(ack) 응답과 짝을 맞추기 위한 클라이언트 측 id
 }
@@ -17,4 +17,5 @@ public class PetMateFilterRequest {
     private String petBreed; // "all" or specific breed
     private Integer minActivityLevel;
     private Integer maxActivityLevel;
+    private Integer limit; // 점수 상위 N명만 (없으면 전체, 거리순)
 }
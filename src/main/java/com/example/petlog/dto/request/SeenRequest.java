@@ -0,0 +1,15 @@
+package com.example.petlog.dto.request;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SeenRequest {
+
+    private List<Long> candidateUserIds; // 화면에 노출됐거나 넘긴(pass) 후보 userId
+}
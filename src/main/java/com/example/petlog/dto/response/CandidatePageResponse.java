@@ -0,0 +1,16 @@
+package com.example.petlog.dto.response;
+
+import lombok.*;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CandidatePageResponse {
+
+    private List<PetMateResponse> candidates;
+    private String nextCursor; // 다음 페이지 요청 시 그대로 전달 (없으면 마지막 페이지)
+    private Boolean hasNext;
+}
@@ -21,4 +21,12 @@ public class MatchResponse {
     private LocalDateTime matchedAt;
     private Long chatRoomId;
     private Boolean alreadyLiked;
+
+    // 매칭 목록 조회 쿼리용 (SELECT new ...)
+    public MatchResponse(Long matchId, Long matchedUserId, String matchedUserName, String matchedUserAvatar,
+                         String petName, String petPhoto, Integer matchScore, Boolean isMatched,
+                         LocalDateTime matchedAt) {
+        this(matchId, matchedUserId, matchedUserName, matchedUserAvatar, petName, petPhoto, matchScore,
+                isMatched, matchedAt, null, null);
+    }
 }
@@ -0,0 +1,21 @@
+package com.example.petlog.dto.response;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MessageAckResponse {
+
+    public static final String PERSISTED = "PERSISTED"; // DB 저장 완료
+    public static final String FAILED = "FAILED";       // 재시도 후에도 저장 실패 (브로드캐스트된 메시지는 유실)
+    public static final String REJECTED = "REJECTED";   // 쓰기 버퍼가 가득 차 접수 거부 (브로드캐스트 안 됨, 다시 보내야 함)
+
+    private Long messageId;         // 서버가 부여한 메시지 id (REJECTED 면 null)
+    private Long chatRoomId;
+    private Long seq;               // 방 안 순번 (REJECTED 면 null)
+    private String clientMessageId; // 요청에 담아 보낸 클라이언트 측 id (그대로 돌려줌)
+    private String status;
+}
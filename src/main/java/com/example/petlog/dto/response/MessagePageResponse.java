@@ -0,0 +1,18 @@
+package com.example.petlog.dto.response;
+
+import lombok.*;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MessagePageResponse {
+
+    private List<MessageResponse> messages; // 표시 순서 (오래된 -> 최신)
+    private Long oldestId;   // 더 이전 페이지 요청 시 before 로 전달
+    private Long newestId;   // 이후 메시지 요청 시 after 로 전달
+    private Boolean hasMore; // 요청한 방향(before/after)으로 메시지가 더 있는지
+    private Long latestSeq;  // (since 조회) 응답 시점에 방에서 부여된 마지막 순번
+}
@@ -12,6 +12,7 @@ public class MessageResponse {
 
     private Long id;
     private Long chatRoomId;
+    private Long seq; // 방 안 순번 (이전 seq + 1 이 아니면 누락 -> /room/{id}/since 로 채움)
     private Long senderId;
     private String senderName;
     private String senderAvatar;
@@ -0,0 +1,19 @@
+package com.example.petlog.dto.response;
+
+import lombok.*;
+import java.time.LocalDateTime;
+
+/**
+ * 매칭 상대의 접속 상태 변경 알림 (/sub/presence/{구독자 userId})
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PresenceResponse {
+
+    private Long userId;
+    private Boolean isOnline;
+    private LocalDateTime changedAt;
+}
@@ -2,6 +2,7 @@ package com.example.petlog.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.DynamicUpdate;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
@@ -14,6 +15,7 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @EntityListeners(AuditingEntityListener.class)
+@DynamicUpdate // 마지막 메시지 갱신이 동시에 바뀐 읽음 워터마크를 덮어쓰지 않도록 변경된 컬럼만 UPDATE
 @Table(name = "chat_room")
 public class ChatRoom {
 
@@ -38,6 +40,20 @@ public class ChatRoom {
     @Column(name = "last_message_at")
     private LocalDateTime lastMessageAt;
 
+    // [추가] last_message 를 만든 메시지 id (ChatRoomLastMessageBuffer 가 더 오래된 메시지로 덮어쓰지 않도록)
+    @Column(name = "last_message_id")
+    private Long lastMessageId;
+
+    // [추가] 읽음 워터마크: 각 참여자가 마지막으로 읽은 메시지 id (이 id 이하는 읽음)
+    // null 은 is_read 기반 이전 데이터 -> 기동 시 ChatReadStateMigrator 가 채움
+    @Column(name = "user1_last_read_message_id")
+    @Builder.Default
+    private Long user1LastReadMessageId = 0L;
+
+    @Column(name = "user2_last_read_message_id")
+    @Builder.Default
+    private Long user2LastReadMessageId = 0L;
+
     @CreatedDate
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
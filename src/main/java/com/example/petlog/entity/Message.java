@@ -14,7 +14,13 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @EntityListeners(AuditingEntityListener.class)
-@Table(name = "chat_messages")
+@Table(name = "chat_messages", indexes = {
+        // 방별 메시지 조회 / 읽음 워터마크 이후 범위 카운트용
+        @Index(name = "idx_chat_messages_room_id", columnList = "chat_room_id, id")
+}, uniqueConstraints = {
+        // 방별 순번 중복 방지 + 재연결 시 "seq 이후 메시지" 조회용
+        @UniqueConstraint(name = "uk_chat_messages_room_seq", columnNames = {"chat_room_id", "seq"})
+})
 public class Message {
 
     @Id
@@ -25,6 +31,11 @@ public class Message {
     @JoinColumn(name = "chat_room_id", nullable = false)
     private ChatRoom chatRoom;
 
+    // [추가] 방 안에서 1부터 증가하는 순번 (ChatRoomSequencer 가 전송 시 부여, 클라이언트 누락 감지/재동기화용)
+    // null 은 순번 도입 이전 메시지 -> 기동 시 ChatMessageSeqMigrator 가 채움
+    @Column(name = "seq")
+    private Long seq;
+
     @Column(name = "sender_id", nullable = false)
     private Long senderId;
 
@@ -36,6 +47,7 @@ public class Message {
     @Builder.Default
     private MessageType messageType = MessageType.TEXT;
 
+    // [변경] 읽음 상태는 ChatRoom 의 읽음 워터마크로 관리, 이 컬럼은 이전 데이터 이관용으로만 남김
     @Column(name = "is_read", nullable = false)
     @Builder.Default
     private Boolean isRead = false;
@@ -2,15 +2,23 @@ package com.example.petlog.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.DynamicUpdate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "pet_mates")
+@Table(name = "pet_mates", indexes = {
+        // 후보 검색의 위경도 박스 조건용
+        @Index(name = "idx_pet_mates_lat_lng", columnList = "latitude, longitude")
+}, uniqueConstraints = {
+        // 사용자당 프로필 1개 (동시 자동 생성 시 중복 방지)
+        @UniqueConstraint(name = "uk_pet_mates_user_id", columnNames = "user_id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@DynamicUpdate // 변경된 컬럼만 UPDATE (위치 배치 반영 값을 다른 저장이 덮어쓰지 않도록)
 public class PetMate {
 
     @Id
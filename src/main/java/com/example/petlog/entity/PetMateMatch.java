@@ -5,7 +5,11 @@ import lombok.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "pet_mate_matches")
+@Table(name = "pet_mate_matches", indexes = {
+        // 보낸/받은 요청, 매칭 목록 조회용
+        @Index(name = "idx_pet_mate_matches_from_status", columnList = "from_user_id, status"),
+        @Index(name = "idx_pet_mate_matches_to_status", columnList = "to_user_id, status")
+})
 @Getter
 @Setter
 @NoArgsConstructor
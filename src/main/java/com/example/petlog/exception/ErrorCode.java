@@ -34,6 +34,9 @@ public enum ErrorCode {
     // ===  리캡 관련 ===
     RECAP_NOT_FOUND("RECAP_001", "해당 리캡을 찾을 수 없습니다.", HttpStatus.NOT_FOUND),
 
+    // === [CHAT] 채팅 관련 ===
+    CHAT_BUFFER_FULL("CHAT_001", "메시지가 몰려 처리하지 못했습니다. 잠시 후 다시 보내주세요.", HttpStatus.SERVICE_UNAVAILABLE),
+
     // 서버 오류 (50X)
     INTERNAL_SERVER_ERROR("SERVER_001", "서버 내부 오류가 발생했습니다", HttpStatus.INTERNAL_SERVER_ERROR),
     DATABASE_ERROR("SERVER_002", "데이터베이스 오류가 발생했습니다", HttpStatus.INTERNAL_SERVER_ERROR),
@@ -2,6 +2,7 @@ package com.example.petlog.repository;
 
 import com.example.petlog.entity.ChatRoom;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -22,4 +23,15 @@ public interface ChatRoomRepository extends JpaRepository<ChatRoom, Long> {
     // 내 채팅방 목록 조회 (user1이거나 user2인 경우)
     @Query("SELECT c FROM ChatRoom c WHERE c.user1Id = :userId OR c.user2Id = :userId")
     List<ChatRoom> findMyChatRooms(@Param("userId") Long userId);
+
+    // 읽음 처리: 내 읽음 워터마크만 앞으로 이동 (행 1개 UPDATE, 이미 더 앞이면 0건)
+    @Modifying
+    @Query("UPDATE ChatRoom c SET " +
+            "c.user1LastReadMessageId = CASE WHEN c.user1Id = :userId THEN :messageId ELSE c.user1LastReadMessageId END, " +
+            "c.user2LastReadMessageId = CASE WHEN c.user2Id = :userId THEN :messageId ELSE c.user2LastReadMessageId END " +
+            "WHERE c.id = :chatRoomId AND (" +
+            "(c.user1Id = :userId AND COALESCE(c.user1LastReadMessageId, 0) < :messageId) OR " +
+            "(c.user2Id = :userId AND COALESCE(c.user2LastReadMessageId, 0) < :messageId))")
+    int advanceLastReadMessageId(@Param("chatRoomId") Long chatRoomId, @Param("userId") Long userId,
+                                 @Param("messageId") Long messageId);
 }
\ No newline at end of file
@@ -1,9 +1,13 @@
 package com.example.petlog.repository;
 
 import com.example.petlog.entity.Message;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -12,12 +16,36 @@ public interface MessageRepository extends JpaRepository<Message, Long> {
     // 1. 채팅방의 모든 메시지 조회 (오래된 순) - 채팅방 입장 시 사용
     List<Message> findByChatRoomIdOrderByCreatedAtAsc(Long chatRoomId);
 
-    // 2. 최신 메시지 50개 조회 (최신 순) - 페이징/미리보기용
-    List<Message> findTop50ByChatRoomIdOrderByCreatedAtDesc(Long chatRoomId);
+    // 2. 키셋 페이지 조회 ((chat_room_id, id) 인덱스) - 이전 메시지는 최신 순, 이후 메시지는 오래된 순
+    List<Message> findByChatRoomIdAndIdLessThanOrderByIdDesc(Long chatRoomId, Long beforeId, Limit limit);
 
-    // 3. 읽지 않은 메시지 목록 조회
-    List<Message> findByChatRoomIdAndIsReadFalse(Long chatRoomId);
+    List<Message> findByChatRoomIdAndIdGreaterThanOrderByIdAsc(Long chatRoomId, Long afterId, Limit limit);
 
-    // 4. 특정 채팅방에서 상대방이 보낸 안 읽은 메시지 개수
-    Long countByChatRoomIdAndIsReadFalseAndSenderIdNot(Long chatRoomId, Long senderId);
+    // 2-1. 재연결 동기화: 방 순번 afterSeq 이후 메시지 ((chat_room_id, seq) 유니크 인덱스)
+    List<Message> findByChatRoomIdAndSeqGreaterThanOrderBySeqAsc(Long chatRoomId, Long afterSeq, Limit limit);
+
+    // 3. 채팅방의 마지막 메시지 id (읽음 처리 기준)
+    @Query("SELECT MAX(m.id) FROM Message m WHERE m.chatRoom.id = :chatRoomId")
+    Long findLastMessageId(@Param("chatRoomId") Long chatRoomId);
+
+    // 4. 특정 채팅방에서 읽음 워터마크 이후 상대방이 보낸 메시지 개수 ((chat_room_id, id) 인덱스 범위 카운트)
+    @Query("SELECT COUNT(m) FROM Message m WHERE m.chatRoom.id = :chatRoomId " +
+            "AND m.id > :afterId AND m.id <= :upToId AND m.senderId <> :userId")
+    long countUnreadBetween(@Param("chatRoomId") Long chatRoomId, @Param("userId") Long userId,
+                            @Param("afterId") Long afterId, @Param("upToId") Long upToId);
+
+    // 5. 내 모든 채팅방에서 상대방이 보낸 안 읽은 메시지 개수 (방 개수와 관계없이 쿼리 1번)
+    @Query("SELECT COUNT(m) FROM Message m JOIN m.chatRoom c WHERE m.senderId <> :userId AND (" +
+            "(c.user1Id = :userId AND m.id > COALESCE(c.user1LastReadMessageId, 0)) OR " +
+            "(c.user2Id = :userId AND m.id > COALESCE(c.user2LastReadMessageId, 0)))")
+    long countUnreadForUser(@Param("userId") Long userId);
+
+    // 6. 배지 카운터 보정용: [userId, 안 읽은 메시지 수] (user1 / user2 자리별로 나눠서 조회 후 합산)
+    @Query("SELECT c.user1Id, COUNT(m) FROM Message m JOIN m.chatRoom c WHERE c.user1Id IN :userIds " +
+            "AND m.id > COALESCE(c.user1LastReadMessageId, 0) AND m.senderId <> c.user1Id GROUP BY c.user1Id")
+    List<Object[]> countUnreadAsUser1(@Param("userIds") Collection<Long> userIds);
+
+    @Query("SELECT c.user2Id, COUNT(m) FROM Message m JOIN m.chatRoom c WHERE c.user2Id IN :userIds " +
+            "AND m.id > COALESCE(c.user2LastReadMessageId, 0) AND m.senderId <> c.user2Id GROUP BY c.user2Id")
+    List<Object[]> countUnreadAsUser2(@Param("userIds") Collection<Long> userIds);
 }
\ No newline at end of file
@@ -1,11 +1,15 @@
 package com.example.petlog.repository;
 
+import com.example.petlog.dto.response.MatchResponse;
+import com.example.petlog.dto.response.PendingRequestResponse;
 import com.example.petlog.entity.PetMateMatch;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -23,6 +27,14 @@ public interface PetMateMatchRepository extends JpaRepository<PetMateMatch, Long
     @Query("SELECT m FROM PetMateMatch m WHERE m.toUserId = :userId AND m.status = 'PENDING'")
     List<PetMateMatch> findPendingLikesForUser(@Param("userId") Long userId);
 
+    @Query("SELECT COUNT(m) FROM PetMateMatch m WHERE m.toUserId = :userId AND m.status = 'PENDING'")
+    long countPendingLikesForUser(@Param("userId") Long userId);
+
+    // 배지 카운터 보정용: [userId, 받은 요청 수]
+    @Query("SELECT m.toUserId, COUNT(m) FROM PetMateMatch m " +
+            "WHERE m.toUserId IN :userIds AND m.status = 'PENDING' GROUP BY m.toUserId")
+    List<Object[]> countPendingLikesByUserIds(@Param("userIds") Collection<Long> userIds);
+
     @Query("SELECT CASE WHEN COUNT(m) > 0 THEN true ELSE false END FROM PetMateMatch m " +
             "WHERE m.fromUserId = :fromUserId AND m.toUserId = :toUserId")
     boolean existsByFromUserIdAndToUserId(@Param("fromUserId") Long fromUserId, @Param("toUserId") Long toUserId);
@@ -32,9 +44,42 @@ public interface PetMateMatchRepository extends JpaRepository<PetMateMatch, Long
 
     List<PetMateMatch> findByFromUserId(Long fromUserId);
 
+    // 후보에서 제외할 상대 ID: 내가 보낸 좋아요(상태 무관) + 매칭/거절된 받은 요청
+    @Query("SELECT CASE WHEN m.fromUserId = :userId THEN m.toUserId ELSE m.fromUserId END FROM PetMateMatch m " +
+            "WHERE m.fromUserId = :userId OR (m.toUserId = :userId AND m.status <> 'PENDING')")
+    List<Long> findInteractedUserIds(@Param("userId") Long userId);
+
     @Query("SELECT m FROM PetMateMatch m WHERE m.fromUserId = :userId AND m.status = 'PENDING'")
     List<PetMateMatch> findSentPendingRequests(@Param("userId") Long userId);
 
+    // [성능] 목록 화면용: 상대 프로필을 조인해서 DTO 로 바로 조회 (행마다 프로필을 따로 조회하지 않음)
+    @Query("SELECT new com.example.petlog.dto.response.PendingRequestResponse(" +
+            "m.id, m.toUserId, COALESCE(p.userName, '알 수 없음'), p.userAvatar, p.petName, p.petPhoto, " +
+            "p.petBreed, p.petAge, p.location, m.createdAt) " +
+            "FROM PetMateMatch m LEFT JOIN PetMate p ON p.userId = m.toUserId " +
+            "WHERE m.fromUserId = :userId AND m.status = 'PENDING' " +
+            "ORDER BY m.createdAt DESC, m.id DESC")
+    List<PendingRequestResponse> findSentPendingRequestViews(@Param("userId") Long userId, Pageable pageable);
+
+    @Query("SELECT new com.example.petlog.dto.response.PendingRequestResponse(" +
+            "m.id, m.fromUserId, COALESCE(p.userName, '알 수 없음'), p.userAvatar, p.petName, p.petPhoto, " +
+            "p.petBreed, p.petAge, p.location, m.createdAt) " +
+            "FROM PetMateMatch m LEFT JOIN PetMate p ON p.userId = m.fromUserId " +
+            "WHERE m.toUserId = :userId AND m.status = 'PENDING' " +
+            "ORDER BY m.createdAt DESC, m.id DESC")
+    List<PendingRequestResponse> findPendingRequestViews(@Param("userId") Long userId, Pageable pageable);
+
+    // 매칭은 양방향 2행으로 저장되므로 상대별 1행만 (내가 보낸 행 우선)
+    @Query("SELECT new com.example.petlog.dto.response.MatchResponse(" +
+            "m.id, CASE WHEN m.fromUserId = :userId THEN m.toUserId ELSE m.fromUserId END, " +
+            "COALESCE(p.userName, '알 수 없음'), p.userAvatar, p.petName, p.petPhoto, m.matchScore, true, m.matchedAt) " +
+            "FROM PetMateMatch m LEFT JOIN PetMate p " +
+            "ON p.userId = CASE WHEN m.fromUserId = :userId THEN m.toUserId ELSE m.fromUserId END " +
+            "WHERE m.status = 'MATCHED' AND (m.fromUserId = :userId OR (m.toUserId = :userId AND NOT EXISTS (" +
+            "SELECT 1 FROM PetMateMatch r WHERE r.fromUserId = :userId AND r.toUserId = m.fromUserId AND r.status = 'MATCHED'))) " +
+            "ORDER BY m.matchedAt DESC, m.id DESC")
+    List<MatchResponse> findMatchViews(@Param("userId") Long userId, Pageable pageable);
+
     // 두 유저가 매칭되었는지 확인
     @Query("SELECT CASE WHEN COUNT(m) > 0 THEN true ELSE false END FROM PetMateMatch m " +
             "WHERE ((m.fromUserId = :userId1 AND m.toUserId = :userId2) OR (m.fromUserId = :userId2 AND m.toUserId = :userId1)) "
@@ -6,17 +6,22 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface PetMateRepository extends JpaRepository<PetMate, Long> {
+public interface PetMateRepository extends JpaRepository<PetMate, Long>, PetMateRepositoryCustom {
 
     // [추가] 유저 ID로 프로필 존재 여부 확인 (이게 없어서 에러가 났습니다)
     boolean existsByUserId(Long userId);
 
     Optional<PetMate> findFirstByUserIdOrderByIdAsc(Long userId);
 
+    // [추가] 프로필 존재 여부 캐시 적재용
+    @Query("SELECT DISTINCT p.userId FROM PetMate p")
+    List<Long> findAllUserIds();
+
     List<PetMate> findByIsActiveTrue();
 
     List<PetMate> findByIsOnlineTrue();
@@ -24,23 +29,44 @@ public interface PetMateRepository extends JpaRepository<PetMate, Long> {
     @Query("SELECT p FROM PetMate p WHERE p.isActive = true AND p.userId != :userId")
     List<PetMate> findActivePetMatesExcludingUser(@Param("userId") Long userId);
 
-    @Query(value = "SELECT * FROM (" +
-            "SELECT *, " +
-            "(6371 * acos(cos(radians(:lat)) * cos(radians(latitude)) * " +
-            "cos(radians(longitude) - radians(:lng)) + " +
-            "sin(radians(:lat)) * sin(radians(latitude)))) AS distance " +
-            "FROM pet_mates " +
-            "WHERE is_active = true AND user_id != :userId" +
-            ") AS subquery " +
-            "WHERE distance < :radius " +
-            "ORDER BY distance", nativeQuery = true)
-    List<PetMate> findNearbyPetMates(
-            @Param("lat") Double latitude,
-            @Param("lng") Double longitude,
-            @Param("radius") Double radiusKm,
-            @Param("userId") Long userId);
+    // [추가] 공간 인덱스 적재용 - 엔티티 전체 대신 위치 컬럼만 조회
+    @Query("SELECT p.userId AS userId, p.latitude AS latitude, p.longitude AS longitude FROM PetMate p " +
+            "WHERE p.isActive = true AND p.latitude IS NOT NULL AND p.longitude IS NOT NULL")
+    List<LocationView> findActiveLocations();
+
+    // [추가] 후보 스냅샷 적재용
+    @Query("SELECT p.userId AS userId, p.latitude AS latitude, p.longitude AS longitude, " +
+            "p.activityLevel AS activityLevel, p.userGender AS userGender, p.petBreed AS petBreed, " +
+            "p.petAge AS petAge, p.lastActiveAt AS lastActiveAt FROM PetMate p WHERE p.isActive = true")
+    List<SnapshotView> findActiveSnapshotRows();
 
     List<PetMate> findByPetBreed(String petBreed);
 
     List<PetMate> findByUserGender(String userGender);
+
+    interface LocationView {
+        Long getUserId();
+
+        Double getLatitude();
+
+        Double getLongitude();
+    }
+
+    interface SnapshotView {
+        Long getUserId();
+
+        Double getLatitude();
+
+        Double getLongitude();
+
+        Integer getActivityLevel();
+
+        String getUserGender();
+
+        String getPetBreed();
+
+        Integer getPetAge();
+
+        LocalDateTime getLastActiveAt();
+    }
 }
\ No newline at end of file
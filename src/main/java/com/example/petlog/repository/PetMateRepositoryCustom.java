@@ -0,0 +1,18 @@
+package com.example.petlog.repository;
+
+import com.example.petlog.entity.PetMate;
+
+import java.util.List;
+
+public interface PetMateRepositoryCustom {
+
+    /**
+     * 조건에 맞는 활성 PetMate 조회 (위치 조건이 있으면 거리순 정렬)
+     */
+    List<PetMate> searchCandidates(PetMateSearchCondition condition);
+
+    /**
+     * 키셋 페이지 조회 - DB 에서 계산한 거리를 함께 반환 (다음 커서 생성용)
+     */
+    List<PetMateSearchResult> searchCandidatePage(PetMateSearchCondition condition);
+}
@@ -0,0 +1,141 @@
+package com.example.petlog.repository;
+
+import com.example.petlog.entity.PetMate;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 후보 검색 동적 쿼리
+ * - 위경도 박스(BETWEEN) 조건으로 (latitude, longitude) 인덱스를 먼저 태우고
+ *   박스 안의 행에 대해서만 정확한 구면 거리를 계산
+ * - 성별/견종/활동량 조건도 SQL 로 내려서 엔티티 로딩 수를 줄임
+ * - 정렬/키셋은 미터 단위 거리 키 (PetMateSearchCondition.distanceKeyOf 와 같은 규칙)
+ */
+public class PetMateRepositoryCustomImpl implements PetMateRepositoryCustom {
+
+    private static final double EARTH_RADIUS_KM = 6371.0;
+
+    private static final String DISTANCE_EXPR =
+            "(6371 * acos(least(1.0, cos(radians(:lat)) * cos(radians(p.latitude)) * " +
+            "cos(radians(p.longitude) - radians(:lng)) + " +
+            "sin(radians(:lat)) * sin(radians(p.latitude)))))";
+
+    private static final String DISTANCE_KEY_EXPR = "floor(" + DISTANCE_EXPR + " * 1000)";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<PetMate> searchCandidates(PetMateSearchCondition condition) {
+        Map<String, Object> params = new HashMap<>();
+        String jpql = "SELECT p" + buildFromWhereOrder(condition, params);
+
+        TypedQuery<PetMate> query = entityManager.createQuery(jpql, PetMate.class);
+        params.forEach(query::setParameter);
+        if (condition.getLimit() != null) {
+            query.setMaxResults(condition.getLimit());
+        }
+        return query.getResultList();
+    }
+
+    @Override
+    public List<PetMateSearchResult> searchCandidatePage(PetMateSearchCondition condition) {
+        if (!condition.hasLocation()) {
+            return searchCandidates(condition).stream()
+                    .map(petMate -> new PetMateSearchResult(petMate, null))
+                    .toList();
+        }
+
+        Map<String, Object> params = new HashMap<>();
+        String jpql = "SELECT p, " + DISTANCE_EXPR + buildFromWhereOrder(condition, params);
+
+        TypedQuery<Object[]> query = entityManager.createQuery(jpql, Object[].class);
+        params.forEach(query::setParameter);
+        if (condition.getLimit() != null) {
+            query.setMaxResults(condition.getLimit());
+        }
+        return query.getResultList().stream()
+                .map(row -> new PetMateSearchResult((PetMate) row[0], ((Number) row[1]).doubleValue()))
+                .toList();
+    }
+
+    private String buildFromWhereOrder(PetMateSearchCondition condition, Map<String, Object> params) {
+        StringBuilder jpql = new StringBuilder(" FROM PetMate p WHERE p.isActive = true");
+
+        if (condition.getExcludeUserId() != null) {
+            jpql.append(" AND p.userId <> :excludeUserId");
+            params.put("excludeUserId", condition.getExcludeUserId());
+        }
+        if (condition.getUserIds() != null) {
+            jpql.append(" AND p.userId IN :userIds");
+            params.put("userIds", condition.getUserIds());
+        }
+        if (condition.getExcludeInteractedBy() != null) {
+            // 내가 보낸 좋아요(상태 무관) + 매칭/거절된 받은 요청
+            jpql.append(" AND NOT EXISTS (SELECT m.id FROM PetMateMatch m WHERE")
+                    .append(" (m.fromUserId = :interactedBy AND m.toUserId = p.userId)")
+                    .append(" OR (m.toUserId = :interactedBy AND m.fromUserId = p.userId")
+                    .append(" AND m.status <> 'PENDING'))");
+            params.put("interactedBy", condition.getExcludeInteractedBy());
+        }
+        if (condition.hasLocation()) {
+            double lat = condition.getLatitude();
+            double lng = condition.getLongitude();
+            double latDelta = Math.toDegrees(condition.getRadiusKm() / EARTH_RADIUS_KM);
+            double lngDelta = Math.min(latDelta / Math.max(Math.cos(Math.toRadians(lat)), 0.01), 180.0);
+
+            jpql.append(" AND p.latitude BETWEEN :minLat AND :maxLat")
+                    .append(" AND p.longitude BETWEEN :minLng AND :maxLng")
+                    .append(" AND ").append(DISTANCE_EXPR).append(" < :radius");
+            params.put("minLat", lat - latDelta);
+            params.put("maxLat", lat + latDelta);
+            params.put("minLng", lng - lngDelta);
+            params.put("maxLng", lng + lngDelta);
+            params.put("lat", lat);
+            params.put("lng", lng);
+            params.put("radius", condition.getRadiusKm());
+        }
+        if (condition.getUserGender() != null) {
+            jpql.append(" AND p.userGender = :userGender");
+            params.put("userGender", condition.getUserGender());
+        }
+        if (condition.getPetBreed() != null) {
+            jpql.append(" AND p.petBreed = :petBreed");
+            params.put("petBreed", condition.getPetBreed());
+        }
+        // 활동량 미입력은 0 으로 간주 (기존 Java 필터와 동일)
+        if (condition.getMinActivityLevel() != null) {
+            jpql.append(" AND coalesce(p.activityLevel, 0) >= :minActivity");
+            params.put("minActivity", condition.getMinActivityLevel());
+        }
+        if (condition.getMaxActivityLevel() != null) {
+            jpql.append(" AND coalesce(p.activityLevel, 0) <= :maxActivity");
+            params.put("maxActivity", condition.getMaxActivityLevel());
+        }
+
+        // 키셋 조건: (거리 키, userId) > (afterDistanceKey, afterUserId)
+        if (condition.getAfterUserId() != null) {
+            if (condition.hasLocation() && condition.getAfterDistanceKey() != null) {
+                jpql.append(" AND (").append(DISTANCE_KEY_EXPR).append(" > :afterDistanceKey")
+                        .append(" OR (").append(DISTANCE_KEY_EXPR).append(" = :afterDistanceKey")
+                        .append(" AND p.userId > :afterUserId))");
+                params.put("afterDistanceKey", condition.getAfterDistanceKey().doubleValue());
+            } else {
+                jpql.append(" AND p.userId > :afterUserId");
+            }
+            params.put("afterUserId", condition.getAfterUserId());
+        }
+
+        if (condition.hasLocation()) {
+            jpql.append(" ORDER BY ").append(DISTANCE_KEY_EXPR).append(", p.userId");
+        } else {
+            jpql.append(" ORDER BY p.userId");
+        }
+        return jpql.toString();
+    }
+}
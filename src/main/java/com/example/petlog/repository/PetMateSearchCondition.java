@@ -0,0 +1,49 @@
+package com.example.petlog.repository;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.Collection;
+
+/**
+ * 후보 검색 조건 (null 인 항목은 조건에서 제외)
+ * - latitude/longitude/radiusKm 이 모두 있으면 위경도 박스 + 반경 조건 적용
+ * - userGender 는 DB 저장값("남성"/"여성") 기준
+ * - 정렬은 위치 조건이 있으면 (거리 키, userId), 없으면 userId
+ * - 거리 키는 미터 단위로 내린 정수 (SQL 과 공간 인덱스가 같은 키로 비교하도록, distanceKeyOf 참고)
+ */
+@Getter
+@Builder
+public class PetMateSearchCondition {
+
+    private final Long excludeUserId;
+    // 이 사용자가 좋아요/매칭/거절한 상대 제외 (PetMateMatchRepository.findInteractedUserIds 와 같은 조건)
+    private final Long excludeInteractedBy;
+    private final Collection<Long> userIds;
+
+    private final Double latitude;
+    private final Double longitude;
+    private final Double radiusKm;
+
+    private final String userGender;
+    private final String petBreed;
+    private final Integer minActivityLevel;
+    private final Integer maxActivityLevel;
+
+    // 키셋 페이지네이션: (거리 키, userId) 가 이 값보다 큰 행부터 조회
+    private final Long afterDistanceKey;
+    private final Long afterUserId;
+    private final Integer limit;
+
+    public boolean hasLocation() {
+        return latitude != null && longitude != null && radiusKm != null;
+    }
+
+    /**
+     * 키셋 정렬/비교용 거리 키 (미터, 내림) - SQL 쪽 floor(거리 * 1000) 과 같은 값
+     * 계산식이 조금 다른 거리(SQL acos / 인덱스 haversine)를 그대로 등호 비교하지 않기 위함
+     */
+    public static long distanceKeyOf(double distanceKm) {
+        return (long) Math.floor(distanceKm * 1000);
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.petlog.repository;
+
+import com.example.petlog.entity.PetMate;
+
+/**
+ * 후보 검색 결과 (위치 조건이 없으면 distanceKm 는 null)
+ */
+public record PetMateSearchResult(PetMate petMate, Double distanceKm) {
+}
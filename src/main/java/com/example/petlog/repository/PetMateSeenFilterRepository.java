@@ -0,0 +1,17 @@
+package com.example.petlog.repository;
+
+import com.example.petlog.entity.PetMateSeenFilter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface PetMateSeenFilterRepository extends JpaRepository<PetMateSeenFilter, Long> {
+
+    Optional<PetMateSeenFilter> findByUserId(Long userId);
+
+    List<PetMateSeenFilter> findByUserIdIn(Collection<Long> userIds);
+}
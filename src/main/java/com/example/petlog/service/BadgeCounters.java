@@ -0,0 +1,151 @@
+package com.example.petlog.service;
+
+import com.example.petlog.repository.MessageRepository;
+import com.example.petlog.repository.PetMateMatchRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * 배지용 인메모리 카운터 (받은 요청 수 / 안 읽은 메시지 수)
+ * - 처음 읽을 때 카운트 쿼리 1번으로 적재, 이후 좋아요/응답/메시지 전송/읽음 처리 시 커밋 후 증감
+ * - 메모리에 없는 사용자의 증감은 버림 (다음 조회 때 DB 에서 새로 적재)
+ * - 주기적으로 적재된 사용자 값을 DB 기준으로 다시 맞추고(동시 증감으로 생긴 오차 보정),
+ *   한동안 조회되지 않은 사용자는 메모리에서 내림
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BadgeCounters {
+
+    private static final int RECONCILE_CHUNK_SIZE = 1000;
+
+    private final PetMateMatchRepository petMateMatchRepository;
+    private final MessageRepository messageRepository;
+
+    @Value("${petmate.badge.idle-minutes:30}")
+    private long idleMinutes;
+
+    private final Map<Long, Counter> pendingRequests = new ConcurrentHashMap<>();
+    private final Map<Long, Counter> unreadMessages = new ConcurrentHashMap<>();
+
+    public long pendingRequests(Long userId) {
+        return read(pendingRequests, userId, petMateMatchRepository::countPendingLikesForUser);
+    }
+
+    public long unreadMessages(Long userId) {
+        return read(unreadMessages, userId, messageRepository::countUnreadForUser);
+    }
+
+    /**
+     * 받은 요청 수 증감 (트랜잭션 안이면 커밋 후 반영)
+     */
+    public void addPendingRequests(Long userId, long delta) {
+        afterCommit(() -> add(pendingRequests, userId, delta));
+    }
+
+    /**
+     * 안 읽은 메시지 수 증감 (트랜잭션 안이면 커밋 후 반영)
+     */
+    public void addUnreadMessages(Long userId, long delta) {
+        afterCommit(() -> add(unreadMessages, userId, delta));
+    }
+
+    @Scheduled(fixedDelayString = "${petmate.badge.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        evictIdle(pendingRequests);
+        evictIdle(unreadMessages);
+
+        try {
+            reconcile(pendingRequests, userIds -> toCounts(petMateMatchRepository.countPendingLikesByUserIds(userIds)));
+            reconcile(unreadMessages, userIds -> {
+                Map<Long, Long> counts = toCounts(messageRepository.countUnreadAsUser1(userIds));
+                toCounts(messageRepository.countUnreadAsUser2(userIds)).forEach((userId, count) ->
+                        counts.merge(userId, count, Long::sum));
+                return counts;
+            });
+        } catch (Exception e) {
+            log.warn("배지 카운터 보정 실패. 다음 주기에 재시도합니다.", e);
+        }
+    }
+
+    private long read(Map<Long, Counter> counters, Long userId, Function<Long, Long> loader) {
+        if (userId == null) return 0L;
+        Counter counter = counters.computeIfAbsent(userId, id -> new Counter(loader.apply(id)));
+        counter.lastReadMillis = System.currentTimeMillis();
+        return counter.value.get();
+    }
+
+    private void add(Map<Long, Counter> counters, Long userId, long delta) {
+        if (userId == null || delta == 0) return;
+        Counter counter = counters.get(userId);
+        if (counter != null) {
+            counter.value.updateAndGet(value -> Math.max(0, value + delta));
+        }
+    }
+
+    private void reconcile(Map<Long, Counter> counters, Function<List<Long>, Map<Long, Long>> loader) {
+        List<Long> userIds = new ArrayList<>(counters.keySet());
+        int corrected = 0;
+        for (int from = 0; from < userIds.size(); from += RECONCILE_CHUNK_SIZE) {
+            List<Long> chunk = userIds.subList(from, Math.min(from + RECONCILE_CHUNK_SIZE, userIds.size()));
+            Map<Long, Long> counts = loader.apply(chunk);
+            for (Long userId : chunk) {
+                Counter counter = counters.get(userId);
+                if (counter == null) continue;
+                long actual = counts.getOrDefault(userId, 0L);
+                if (counter.value.getAndSet(actual) != actual) corrected++;
+            }
+        }
+        if (corrected > 0) {
+            log.debug("배지 카운터 보정: {}건", corrected);
+        }
+    }
+
+    private void evictIdle(Map<Long, Counter> counters) {
+        long idleSince = System.currentTimeMillis() - idleMinutes * 60_000;
+        counters.entrySet().removeIf(entry -> entry.getValue().lastReadMillis < idleSince);
+    }
+
+    private static Map<Long, Long> toCounts(List<Object[]> rows) {
+        Map<Long, Long> counts = new HashMap<>();
+        for (Object[] row : rows) {
+            counts.put((Long) row[0], (Long) row[1]);
+        }
+        return counts;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static final class Counter {
+        private final AtomicLong value;
+        private volatile long lastReadMillis = System.currentTimeMillis();
+
+        private Counter(long value) {
+            this.value = new AtomicLong(value);
+        }
+    }
+}
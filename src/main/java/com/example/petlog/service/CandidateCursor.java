@@ -0,0 +1,52 @@
+package com.example.petlog.service;
+
+import com.example.petlog.exception.BusinessException;
+import com.example.petlog.exception.ErrorCode;
+import com.example.petlog.repository.PetMateSearchCondition;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * 후보 덱 페이지 커서 (마지막으로 내려준 후보의 거리 키(미터), userId)
+ * 클라이언트에는 Base64 문자열로만 노출
+ */
+record CandidateCursor(Long distanceKey, Long userId) {
+
+    private static final String SEPARATOR = "|";
+
+    String encode() {
+        String raw = (distanceKey != null ? distanceKey.toString() : "") + SEPARATOR + userId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static CandidateCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) return null;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int idx = raw.indexOf(SEPARATOR);
+            String distance = raw.substring(0, idx);
+            Long userId = Long.parseLong(raw.substring(idx + 1));
+            return new CandidateCursor(distance.isEmpty() ? null : parseDistanceKey(distance), userId);
+        } catch (RuntimeException e) {
+            throw new BusinessException(ErrorCode.INVALID_FORMAT, "잘못된 커서입니다: " + cursor);
+        }
+    }
+
+    // 이전 형식(거리 km 실수) 커서도 받아서 거리 키로 변환
+    private static long parseDistanceKey(String distance) {
+        if (distance.indexOf('.') >= 0 || distance.indexOf('E') >= 0) {
+            return PetMateSearchCondition.distanceKeyOf(Double.parseDouble(distance));
+        }
+        return Long.parseLong(distance);
+    }
+
+    /**
+     * (거리 키, userId) 순서상 이 커서 이후인지 여부
+     */
+    boolean precedes(long otherDistanceKey, Long otherUserId) {
+        if (distanceKey == null) return otherUserId > userId;
+        int cmp = Long.compare(otherDistanceKey, distanceKey);
+        return cmp > 0 || (cmp == 0 && otherUserId > userId);
+    }
+}
@@ -0,0 +1,226 @@
+package com.example.petlog.service;
+
+import com.example.petlog.dto.request.PetMateFilterRequest;
+import com.example.petlog.dto.response.PetMateResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.LongPredicate;
+
+/**
+ * 사용자별 미리 계산된 후보 덱 저장소
+ * - 키: (userId, 요청 위치 셀, 필터 시그니처) / 사용자당 덱 1개만 보관
+ * - 반경을 덮는 셀들의 버전을 함께 저장하고, 버전이 하나라도 바뀌면(해당 셀의 프로필 변경) 무효
+ * - 사용자가 다른 셀로 이동하거나 필터가 바뀌면 키가 달라져 자동으로 무효
+ *
+ * 같은 셀 안에서는 덱 계산 시점의 위치 기준 거리/반경을 그대로 사용 (셀 크기 약 1km 이내 오차)
+ * 후보가 같은 셀 안에서 움직인 것도 무효로 보지 않음 (거리 오차는 ttl-seconds 안에서만 유지)
+ *
+ * 메모리 상한
+ * - 덱 하나에는 후보를 max-candidates 명까지만 보관, 그보다 많은 결과(limit 없는 요청 등)는 저장하지 않고 바로 응답
+ * - 전체 덱은 보관 중인 후보 수 합계(maximum-weight)로 제한, 요청 기록은 maximum-users 명까지
+ */
+@Component
+public class CandidateDeckCache {
+
+    // limit 요청 시 여유분 (덱 계산 이후 새로 상호작용한 상대를 빼도 limit 을 채우기 위함)
+    static final int LIMIT_MARGIN = 20;
+
+    private final PetMateGeoIndex geoIndex;
+    private final PetMateInteractionIndex interactionIndex;
+    private final SeenCandidateIndex seenIndex;
+    private final PresenceRegistry presenceRegistry;
+
+    // 셀 버전이 그대로여도 온라인 여부/최근 접속 점수 반영을 위해 이 시간이 지나면 만료
+    private final long ttlSeconds;
+    private final int maxCandidates;
+
+    private final Cache<Long, Deck> decks;
+    private final Cache<Long, DeckRequest> lastRequests;
+
+    public CandidateDeckCache(PetMateGeoIndex geoIndex,
+                              PetMateInteractionIndex interactionIndex,
+                              SeenCandidateIndex seenIndex,
+                              PresenceRegistry presenceRegistry,
+                              @Value("${petmate.deck.ttl-seconds:300}") long ttlSeconds,
+                              @Value("${petmate.deck.max-candidates:500}") int maxCandidates,
+                              @Value("${petmate.deck.maximum-weight:1000000}") long maximumWeight,
+                              @Value("${petmate.deck.maximum-users:100000}") long maximumUsers) {
+        this.geoIndex = geoIndex;
+        this.interactionIndex = interactionIndex;
+        this.seenIndex = seenIndex;
+        this.presenceRegistry = presenceRegistry;
+        this.ttlSeconds = ttlSeconds;
+        this.maxCandidates = maxCandidates;
+        this.decks = Caffeine.newBuilder()
+                .maximumWeight(maximumWeight)
+                .weigher((Long userId, Deck deck) -> deck.candidates().size() + 1)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+        this.lastRequests = Caffeine.newBuilder()
+                .maximumSize(maximumUsers)
+                .build();
+    }
+
+    /**
+     * 덱에서 후보 조회, 없거나 무효면 loader 로 다시 계산해서 저장
+     *
+     * @param loader 필터(limit 에 여유분이 더해진)로 후보를 계산하는 함수
+     */
+    public List<PetMateResponse> getOrCompute(Long userId, PetMateFilterRequest filter,
+                                              Function<PetMateFilterRequest, List<PetMateResponse>> loader) {
+        lastRequests.put(userId, new DeckRequest(filter, System.currentTimeMillis()));
+
+        Deck deck = decks.getIfPresent(userId);
+        if (deck == null || !isValid(deck, filter)) {
+            return serve(userId, compute(userId, filter, loader), filter.getLimit());
+        }
+
+        List<PetMateResponse> served = serve(userId, deck, filter.getLimit());
+        Integer limit = filter.getLimit();
+        if (limit != null && served.size() < limit && deck.candidates().size() >= limit + LIMIT_MARGIN) {
+            // 덱 계산 이후 넘긴 후보가 많아 여유분이 바닥나면 다시 계산해서 채움
+            served = serve(userId, compute(userId, filter, loader), limit);
+        }
+        return served;
+    }
+
+    /**
+     * 마지막 요청 필터 기준으로 덱을 미리 계산 (스케줄러용)
+     *
+     * @param position 계산 기준 위치 (null 이면 마지막 요청 위치)
+     * @return 새로 계산했으면 true
+     */
+    public boolean refresh(Long userId, PetMateGeoIndex.Position position,
+                           Function<PetMateFilterRequest, List<PetMateResponse>> loader) {
+        DeckRequest request = lastRequests.getIfPresent(userId);
+        if (request == null) return false;
+
+        PetMateFilterRequest filter = request.filter();
+        // 덱 상한을 넘을 수 있는 요청(limit 없음 등)은 미리 계산해도 보관되지 않으므로 건너뜀
+        Integer limit = filter.getLimit();
+        if (limit == null || limit < 0 || limit + LIMIT_MARGIN > maxCandidates) return false;
+        if (position != null) {
+            filter = copyOf(filter, position.latitude(), position.longitude(), filter.getLimit());
+        }
+
+        Deck deck = decks.getIfPresent(userId);
+        if (deck != null && isValid(deck, filter)) return false;
+
+        compute(userId, filter, loader);
+        return true;
+    }
+
+    /**
+     * 덱을 요청한 적 있는 사용자별 마지막 요청 시각 (스케줄러용)
+     */
+    public Map<Long, Long> lastRequestTimes() {
+        Map<Long, Long> times = new HashMap<>();
+        lastRequests.asMap().forEach((userId, request) -> times.put(userId, request.requestedAtMillis()));
+        return times;
+    }
+
+    /**
+     * 비활성 사용자의 덱/요청 기록 정리
+     */
+    public void evict(Long userId) {
+        decks.invalidate(userId);
+        lastRequests.invalidate(userId);
+    }
+
+    public long size() {
+        return decks.estimatedSize();
+    }
+
+    private Deck compute(Long userId, PetMateFilterRequest filter,
+                         Function<PetMateFilterRequest, List<PetMateResponse>> loader) {
+        // 계산 전에 셀 버전을 먼저 읽어야 계산 도중의 변경도 다음 조회에서 무효로 잡힘
+        long[] cells = geoIndex.cellsCovering(filter.getLatitude(), filter.getLongitude(), radiusOf(filter));
+        long[] versions = new long[cells.length];
+        for (int i = 0; i < cells.length; i++) {
+            versions[i] = geoIndex.versionOf(cells[i]);
+        }
+
+        Integer limit = filter.getLimit();
+        PetMateFilterRequest widened = limit != null && limit >= 0
+                ? copyOf(filter, filter.getLatitude(), filter.getLongitude(), limit + LIMIT_MARGIN)
+                : filter;
+        List<PetMateResponse> candidates = loader.apply(widened);
+
+        Deck deck = new Deck(PetMateGeoIndex.cellKey(filter.getLatitude(), filter.getLongitude()),
+                signatureOf(filter), cells, versions, List.copyOf(candidates), System.currentTimeMillis());
+        if (candidates.size() <= maxCandidates) {
+            decks.put(userId, deck);
+        } else {
+            // 상한보다 큰 결과는 이번 응답에만 쓰고 보관하지 않음 (남아 있던 이전 덱도 이 필터와는 맞지 않으므로 정리)
+            decks.invalidate(userId);
+        }
+        return deck;
+    }
+
+    private boolean isValid(Deck deck, PetMateFilterRequest filter) {
+        if (System.currentTimeMillis() - deck.createdAtMillis() > ttlSeconds * 1000) return false;
+        if (deck.cellKey() != PetMateGeoIndex.cellKey(filter.getLatitude(), filter.getLongitude())) return false;
+        if (!deck.signature().equals(signatureOf(filter))) return false;
+
+        for (int i = 0; i < deck.cells().length; i++) {
+            if (geoIndex.versionOf(deck.cells()[i]) != deck.versions()[i]) return false;
+        }
+        return true;
+    }
+
+    private List<PetMateResponse> serve(Long userId, Deck deck, Integer limit) {
+        // 덱 계산 이후 좋아요/매칭했거나 이미 본 상대 제외
+        LongPredicate interacted = interactionIndex.excluder(userId).or(seenIndex.excluder(userId));
+        int max = limit != null && limit >= 0 ? limit : Integer.MAX_VALUE;
+
+        List<PetMateResponse> result = new ArrayList<>(Math.min(max, deck.candidates().size()));
+        for (PetMateResponse candidate : deck.candidates()) {
+            if (result.size() >= max) break;
+            if (interacted.test(candidate.getUserId())) continue;
+            // 접속 상태는 덱 계산 시점이 아니라 지금 기준 (덱의 DTO 는 여러 요청이 공유하므로 복사본에 설정)
+            result.add(candidate.toBuilder()
+                    .isOnline(presenceRegistry.isOnline(candidate.getUserId()))
+                    .build());
+        }
+        return result;
+    }
+
+    private static double radiusOf(PetMateFilterRequest filter) {
+        return filter.getRadiusKm() != null ? filter.getRadiusKm() : 3.0;
+    }
+
+    private static String signatureOf(PetMateFilterRequest filter) {
+        return radiusOf(filter) + "|" + filter.getUserGender() + "|" + filter.getPetBreed() + "|"
+                + filter.getMinActivityLevel() + "|" + filter.getMaxActivityLevel() + "|" + filter.getLimit();
+    }
+
+    private static PetMateFilterRequest copyOf(PetMateFilterRequest filter, Double latitude, Double longitude,
+                                               Integer limit) {
+        return PetMateFilterRequest.builder()
+                .latitude(latitude)
+                .longitude(longitude)
+                .radiusKm(filter.getRadiusKm())
+                .userGender(filter.getUserGender())
+                .petBreed(filter.getPetBreed())
+                .minActivityLevel(filter.getMinActivityLevel())
+                .maxActivityLevel(filter.getMaxActivityLevel())
+                .limit(limit)
+                .build();
+    }
+
+    private record DeckRequest(PetMateFilterRequest filter, long requestedAtMillis) {
+    }
+
+    private record Deck(long cellKey, String signature, long[] cells, long[] versions,
+                        List<PetMateResponse> candidates, long createdAtMillis) {
+    }
+}
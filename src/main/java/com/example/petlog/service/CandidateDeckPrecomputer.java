@@ -0,0 +1,63 @@
+package com.example.petlog.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * 최근 활동한 사용자의 후보 덱을 백그라운드에서 미리 계산
+ * - 대상: 덱을 요청한 적 있고, 마지막 요청/접속(lastActiveAt)이 활동 기준 시간 이내인 사용자
+ * - 요청 이후 위치를 갱신했다면 공간 인덱스의 현재 위치 기준으로 계산
+ * - 활동 기준 시간을 넘긴 사용자는 덱을 정리해 메모리를 회수
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CandidateDeckPrecomputer {
+
+    private final CandidateDeckCache deckCache;
+    private final PetMateService petMateService;
+    private final PetMateGeoIndex geoIndex;
+    private final PetMateScoringEngine scoringEngine;
+
+    @Value("${petmate.deck.active-window-minutes:30}")
+    private long activeWindowMinutes;
+
+    @Scheduled(fixedDelayString = "${petmate.deck.refresh-interval-ms:60000}",
+            initialDelayString = "${petmate.deck.refresh-interval-ms:60000}")
+    public void precompute() {
+        long now = System.currentTimeMillis();
+        long activeSince = now - activeWindowMinutes * 60_000;
+        int refreshed = 0;
+
+        for (Map.Entry<Long, Long> entry : deckCache.lastRequestTimes().entrySet()) {
+            Long userId = entry.getKey();
+            long requestedAt = entry.getValue();
+            double lastActive = scoringEngine.lastActiveEpochSecond(userId);
+            long lastActiveAt = Double.isNaN(lastActive) ? 0L : (long) lastActive * 1000;
+
+            if (Math.max(requestedAt, lastActiveAt) < activeSince) {
+                deckCache.evict(userId);
+                continue;
+            }
+
+            // 마지막 요청 이후 위치를 갱신했으면 새 위치 기준
+            PetMateGeoIndex.Position position = lastActiveAt > requestedAt ? geoIndex.locate(userId) : null;
+            try {
+                if (deckCache.refresh(userId, position, filter -> petMateService.computeCandidates(userId, filter))) {
+                    refreshed++;
+                }
+            } catch (Exception e) {
+                log.warn("후보 덱 미리 계산 실패 (UserId: {})", userId, e);
+            }
+        }
+
+        if (refreshed > 0) {
+            log.debug("후보 덱 미리 계산 완료: {}건 (보관 {}건)", refreshed, deckCache.size());
+        }
+    }
+}
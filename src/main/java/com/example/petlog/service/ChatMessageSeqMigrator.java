@@ -0,0 +1,60 @@
+package com.example.petlog.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 순번(seq) 도입 이전 메시지에 방별 순번 부여
+ * - 웹 서버/STOMP 브로커가 시작되기 전(빈 초기화 직후)에 실행해서 이관 도중 새 메시지가 순번을 받지 않게 함
+ * - 순번이 없는 메시지가 남은 방이 대상, 그 방의 기존 MAX(seq) 다음부터 id 순서대로 번호를 매김
+ *   (보통은 MAX(seq) 가 없어 1, 2, 3 ... / 이전 기동에서 일부만 이관됐어도 이어서 채움)
+ * - 순번이 없는 메시지만 갱신하므로 여러 번 실행돼도 결과가 같음
+ * - 이관한 방은 ChatRoomSequencer 카운터를 내려서 다음 전송 때 새 MAX(seq) 로 초기화
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ChatMessageSeqMigrator implements SmartInitializingSingleton {
+
+    private static final int CHUNK_SIZE = 500;
+
+    private static final String LEGACY_ROOMS_SQL =
+            "SELECT DISTINCT chat_room_id FROM chat_messages WHERE seq IS NULL";
+    private static final String BACKFILL_SQL =
+            "UPDATE chat_messages m SET seq = s.base + s.rn FROM (" +
+            "SELECT c.id, ROW_NUMBER() OVER (PARTITION BY c.chat_room_id ORDER BY c.id) AS rn, " +
+            "COALESCE((SELECT MAX(x.seq) FROM chat_messages x WHERE x.chat_room_id = c.chat_room_id), 0) AS base " +
+            "FROM chat_messages c WHERE c.chat_room_id IN (:roomIds) AND c.seq IS NULL) s " +
+            "WHERE m.id = s.id";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final ChatRoomSequencer sequencer;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        backfillSequences();
+    }
+
+    public void backfillSequences() {
+        try {
+            List<Long> roomIds = jdbcTemplate.getJdbcTemplate().queryForList(LEGACY_ROOMS_SQL, Long.class);
+            int updated = 0;
+            for (int from = 0; from < roomIds.size(); from += CHUNK_SIZE) {
+                List<Long> chunk = roomIds.subList(from, Math.min(from + CHUNK_SIZE, roomIds.size()));
+                updated += jdbcTemplate.update(BACKFILL_SQL, new MapSqlParameterSource("roomIds", chunk));
+                chunk.forEach(sequencer::evict);
+            }
+            if (updated > 0) {
+                log.info("메시지 순번 이관: 채팅방 {}개, 메시지 {}건", roomIds.size(), updated);
+            }
+        } catch (Exception e) {
+            log.warn("메시지 순번 이관 실패. 다음 기동 때 다시 시도합니다.", e);
+        }
+    }
+}
@@ -0,0 +1,393 @@
+package com.example.petlog.service;
+
+import com.example.petlog.dto.response.MessageAckResponse;
+import com.example.petlog.entity.Message;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 채팅 메시지 비동기 저장(write-behind) 파이프라인 (petmate.chat.write-behind.enabled=true 일 때만 사용)
+ * - 전송 시 서버가 메시지 id 를 먼저 부여하고 바로 브로드캐스트, DB 저장은 고정 크기 버퍼에 넣고 뒤로 미룸
+ * - 전용 writer 스레드가 버퍼를 모아 JDBC 배치 INSERT 1번으로 저장 (채팅방 마지막 메시지는 ChatRoomLastMessageBuffer 로)
+ * - 저장이 끝나면 보낸 사람에게 /sub/chat/ack/{senderId} 로 PERSISTED, 재시도 후에도 실패하면 FAILED 전송
+ * - 버퍼가 가득 차면 offer-timeout 동안 기다린 뒤 거부 (REJECTED, 브로드캐스트하지 않음 -> 클라이언트가 다시 전송)
+ *
+ * id 는 chat_messages 의 identity 시퀀스에서 블록 단위로 미리 받아 씀 (동기 저장과 같은 시퀀스라 충돌 없음)
+ * 남은 id 가 블록의 절반 아래로 내려가면 적재 락 밖에서 다음 블록을 받아 뒤에 붙임 (DB 왕복 동안 다른 전송을 막지 않음)
+ * id / 방 순번(seq) 부여와 버퍼 적재를 한 번에 해서 id 순서 = seq 순서 = 저장 순서
+ * (적재 락 안에서는 메모리 작업만 - 방 순번 카운터 초기화도 락 밖에서 먼저)
+ * 메시지는 저장이 끝날 때까지 버퍼에 남아 있어서, 버퍼 -> DB 순으로 보면 저장 대기 중인 메시지도 빠짐없이 보임 (pendingSince)
+ *
+ * 메트릭: petmate.chat.write-behind.enqueued / persisted / failed / rejected,
+ *        petmate.chat.write-behind.buffer.size, petmate.chat.write-behind.flush
+ */
+@Slf4j
+@Component
+public class ChatMessageWriteBehind {
+
+    public static final String ACK_DESTINATION_PREFIX = "/sub/chat/ack/";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO chat_messages (id, chat_room_id, seq, sender_id, content, message_type, is_read, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, false, ?)";
+    private static final String EXISTS_SQL =
+            "SELECT EXISTS (SELECT 1 FROM chat_messages WHERE id = ? AND chat_room_id = ? AND seq = ?)";
+    private static final String NEXT_IDS_SQL =
+            "SELECT nextval(pg_get_serial_sequence('chat_messages', 'id')) FROM generate_series(1, ?)";
+
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long RETRY_BACKOFF_MS = 200;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final BadgeCounters badgeCounters;
+    private final ChatRoomLastMessageBuffer lastMessageBuffer;
+    private final ChatRoomSequencer sequencer;
+
+    private final boolean enabled;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final long offerTimeoutMs;
+    private final int idBlockSize;
+
+    private final ArrayBlockingQueue<PendingMessage> buffer;
+    // id 부여와 버퍼 적재를 묶는 락 (id 순서대로 버퍼에 들어가야 저장 순서도 id 순서)
+    private final ReentrantLock enqueueLock = new ReentrantLock();
+    private final ArrayDeque<Long> reservedIds = new ArrayDeque<>(); // enqueueLock 으로 보호
+    private volatile int reservedCount;
+    // id 블록 조회는 한 번에 하나만 (먼저 받은 블록이 항상 앞에 붙어야 id 가 증가 순서)
+    private final ReentrantLock refillLock = new ReentrantLock();
+
+    private final Counter enqueuedCounter;
+    private final Counter persistedCounter;
+    private final Counter failedCounter;
+    private final Counter rejectedCounter;
+    private final Timer flushTimer;
+
+    private volatile boolean running;
+    private volatile Thread writer;
+
+    public ChatMessageWriteBehind(JdbcTemplate jdbcTemplate,
+                                  TransactionTemplate transactionTemplate,
+                                  SimpMessagingTemplate messagingTemplate,
+                                  BadgeCounters badgeCounters,
+                                  ChatRoomLastMessageBuffer lastMessageBuffer,
+                                  ChatRoomSequencer sequencer,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${petmate.chat.write-behind.enabled:false}") boolean enabled,
+                                  @Value("${petmate.chat.write-behind.capacity:10000}") int capacity,
+                                  @Value("${petmate.chat.write-behind.batch-size:500}") int batchSize,
+                                  @Value("${petmate.chat.write-behind.flush-interval-ms:20}") long flushIntervalMs,
+                                  @Value("${petmate.chat.write-behind.offer-timeout-ms:100}") long offerTimeoutMs,
+                                  @Value("${petmate.chat.write-behind.id-block-size:50}") int idBlockSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.messagingTemplate = messagingTemplate;
+        this.badgeCounters = badgeCounters;
+        this.lastMessageBuffer = lastMessageBuffer;
+        this.sequencer = sequencer;
+        this.enabled = enabled;
+        this.batchSize = Math.max(1, batchSize);
+        this.flushIntervalMs = Math.max(1, flushIntervalMs);
+        this.offerTimeoutMs = Math.max(0, offerTimeoutMs);
+        this.idBlockSize = Math.max(1, idBlockSize);
+        this.buffer = new ArrayBlockingQueue<>(Math.max(1, capacity));
+
+        this.enqueuedCounter = Counter.builder("petmate.chat.write-behind.enqueued")
+                .description("버퍼에 접수된 메시지 수")
+                .register(meterRegistry);
+        this.persistedCounter = Counter.builder("petmate.chat.write-behind.persisted")
+                .description("DB 에 저장된 메시지 수")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("petmate.chat.write-behind.failed")
+                .description("재시도 후에도 저장하지 못한 메시지 수")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("petmate.chat.write-behind.rejected")
+                .description("버퍼가 가득 차 거부된 메시지 수")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("petmate.chat.write-behind.flush")
+                .description("배치 저장 소요 시간")
+                .register(meterRegistry);
+        Gauge.builder("petmate.chat.write-behind.buffer.size", buffer, ArrayBlockingQueue::size)
+                .description("저장 대기 중인 메시지 수")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) return;
+        running = true;
+        writer = new Thread(this::runWriter, "chat-write-behind");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * id 와 방 순번을 부여해서 버퍼에 적재
+     *
+     * @param draft id / seq 가 비어 있는 메시지 (이 메서드에서 채움)
+     * @return id / seq 가 채워진 메시지, 버퍼가 offer-timeout 동안 계속 가득 차 있으면 null
+     */
+    public PendingMessage enqueue(PendingMessage draft) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(offerTimeoutMs);
+        // 처음 쓰이는 방이면 여기서 MAX(seq) 로 카운터 초기화 (락 안에서는 증가만)
+        sequencer.current(draft.chatRoomId());
+        while (true) {
+            refillIdsIfLow();
+            enqueueLock.lock();
+            try {
+                if (buffer.remainingCapacity() > 0) {
+                    // id 가 바닥났으면(다른 스레드가 방금 다 씀) 락 밖에서 블록을 받은 뒤 다시 시도
+                    if (reservedIds.isEmpty()) continue;
+
+                    Long id = reservedIds.poll();
+                    reservedCount = reservedIds.size();
+                    PendingMessage message = draft.assigned(id, sequencer.next(draft.chatRoomId()));
+                    buffer.add(message);
+                    enqueuedCounter.increment();
+                    LockSupport.unpark(writer);
+                    return message;
+                }
+            } finally {
+                enqueueLock.unlock();
+            }
+            if (System.nanoTime() >= deadline) break;
+            // 락을 쥔 채로 기다리지 않도록 밖에서 잠깐 쉬고 다시 확인
+            try {
+                Thread.sleep(1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        rejectedCounter.increment();
+        return null;
+    }
+
+    public int pendingCount() {
+        return buffer.size();
+    }
+
+    /**
+     * 아직 DB 에 저장되지 않은 방 메시지 중 afterSeq 이후 것 (seq 순)
+     * 저장이 끝난 메시지는 버퍼에서 빠지므로, 이 메서드를 먼저 부르고 DB 를 조회해야 그 사이 저장된 메시지를 놓치지 않음
+     */
+    public List<PendingMessage> pendingSince(Long chatRoomId, long afterSeq) {
+        if (buffer.isEmpty()) return List.of();
+        List<PendingMessage> result = new ArrayList<>();
+        for (PendingMessage message : buffer) {
+            if (message.chatRoomId().equals(chatRoomId) && message.seq() > afterSeq) {
+                result.add(message);
+            }
+        }
+        return result;
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (writer == null) return;
+        // 남은 메시지를 모두 저장할 때까지 기다림 (DataSource 보다 먼저 종료됨)
+        running = false;
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!buffer.isEmpty()) {
+            log.error("종료 시 저장하지 못한 채팅 메시지 {}건", buffer.size());
+        }
+    }
+
+    /**
+     * 남은 id 가 블록 절반 아래면 다음 블록을 받아 뒤에 붙임 (enqueueLock 밖에서 호출)
+     * 다른 스레드가 받는 중이면, 남은 id 가 있는 동안은 기다리지 않고 그대로 진행
+     */
+    private void refillIdsIfLow() {
+        if (reservedCount > idBlockSize / 2) return;
+        if (reservedCount > 0) {
+            if (!refillLock.tryLock()) return;
+        } else {
+            refillLock.lock();
+        }
+        try {
+            if (reservedCount > idBlockSize / 2) return;
+            List<Long> ids = jdbcTemplate.queryForList(NEXT_IDS_SQL, Long.class, idBlockSize);
+            enqueueLock.lock();
+            try {
+                reservedIds.addAll(ids);
+                reservedCount = reservedIds.size();
+            } finally {
+                enqueueLock.unlock();
+            }
+        } finally {
+            refillLock.unlock();
+        }
+    }
+
+    private void runWriter() {
+        List<PendingMessage> batch = new ArrayList<>(batchSize);
+        while (running || !buffer.isEmpty()) {
+            if (Thread.interrupted()) {
+                // 남은 메시지만 저장하고 종료
+                running = false;
+            }
+            try {
+                if (buffer.isEmpty()) {
+                    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(flushIntervalMs));
+                    continue;
+                }
+                // 저장이 끝날 때까지 버퍼에서 빼지 않음 (읽는 쪽은 단일 writer 라 앞쪽 batch 건이 그대로 유지됨)
+                Iterator<PendingMessage> iterator = buffer.iterator();
+                while (batch.size() < batchSize && iterator.hasNext()) {
+                    batch.add(iterator.next());
+                }
+                persist(batch);
+                for (int i = 0; i < batch.size(); i++) {
+                    buffer.poll();
+                }
+            } catch (Exception e) {
+                log.error("채팅 메시지 저장 스레드 오류", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void persist(List<PendingMessage> batch) {
+        Timer.Sample sample = Timer.start();
+        try {
+            for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+                try {
+                    writeBatch(batch);
+                    batch.forEach(this::onPersisted);
+                    return;
+                } catch (DataIntegrityViolationException e) {
+                    // 제약 조건 위반은 다시 해도 같으므로 바로 한 건씩 저장으로
+                    log.warn("채팅 메시지 배치 저장 실패 ({}건): {}", batch.size(), e.getMostSpecificCause().getMessage());
+                    break;
+                } catch (Exception e) {
+                    log.warn("채팅 메시지 배치 저장 실패 ({}건, {}/{}회)", batch.size(), attempt, MAX_ATTEMPTS, e);
+                    sleepQuietly(RETRY_BACKOFF_MS * attempt);
+                }
+            }
+            // 배치 전체가 계속 실패하면 한 건씩 저장해서 문제 있는 메시지만 골라냄 (예: 없는 채팅방)
+            batch.forEach(this::persistOne);
+        } finally {
+            sample.stop(flushTimer);
+        }
+    }
+
+    private void persistOne(PendingMessage message) {
+        try {
+            writeBatch(List.of(message));
+            onPersisted(message);
+        } catch (DuplicateKeyException e) {
+            // 앞선 시도가 실제로는 커밋된 경우만 저장 완료 (같은 방 순번 충돌 등 다른 유니크 위반이면 이 메시지는 저장되지 않음)
+            if (isStored(message)) {
+                onPersisted(message);
+                return;
+            }
+            onFailed(message, e);
+        } catch (Exception e) {
+            onFailed(message, e);
+        }
+    }
+
+    private boolean isStored(PendingMessage message) {
+        try {
+            return Boolean.TRUE.equals(jdbcTemplate.queryForObject(EXISTS_SQL, Boolean.class,
+                    message.id(), message.chatRoomId(), message.seq()));
+        } catch (Exception e) {
+            log.warn("채팅 메시지 저장 여부 확인 실패 (MessageId: {})", message.id(), e);
+            return false;
+        }
+    }
+
+    private void onFailed(PendingMessage message, Exception e) {
+        failedCounter.increment();
+        log.error("채팅 메시지 저장 실패 (MessageId: {}, ChatRoomId: {}, Seq: {})",
+                message.id(), message.chatRoomId(), message.seq(), e);
+        sendAck(message, MessageAckResponse.FAILED);
+    }
+
+    private void writeBatch(List<PendingMessage> batch) {
+        List<Object[]> rows = new ArrayList<>(batch.size());
+        for (PendingMessage message : batch) {
+            rows.add(new Object[]{message.id(), message.chatRoomId(), message.seq(), message.senderId(),
+                    message.content(), message.messageType().name(), Timestamp.valueOf(message.createdAt())});
+        }
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_SQL, rows));
+    }
+
+    private void onPersisted(PendingMessage message) {
+        persistedCounter.increment();
+        lastMessageBuffer.offer(message.chatRoomId(), message.id(), message.preview(), message.createdAt());
+        badgeCounters.addUnreadMessages(message.recipientId(), 1);
+        sendAck(message, MessageAckResponse.PERSISTED);
+    }
+
+    private void sendAck(PendingMessage message, String status) {
+        try {
+            messagingTemplate.convertAndSend(ACK_DESTINATION_PREFIX + message.senderId(),
+                    MessageAckResponse.builder()
+                            .messageId(message.id())
+                            .chatRoomId(message.chatRoomId())
+                            .seq(message.seq())
+                            .clientMessageId(message.clientMessageId())
+                            .status(status)
+                            .build());
+        } catch (Exception e) {
+            log.warn("저장 확인 전송 실패 (MessageId: {})", message.id(), e);
+        }
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 저장 대기 중인 메시지 (preview: 채팅방 목록에 보여줄 마지막 메시지 문구)
+     */
+    public record PendingMessage(Long id, Long chatRoomId, Long seq, Long senderId, Long recipientId,
+                                 String clientMessageId, String content, Message.MessageType messageType,
+                                 String preview, LocalDateTime createdAt) {
+
+        PendingMessage assigned(Long id, Long seq) {
+            return new PendingMessage(id, chatRoomId, seq, senderId, recipientId, clientMessageId, content,
+                    messageType, preview, createdAt);
+        }
+    }
+}
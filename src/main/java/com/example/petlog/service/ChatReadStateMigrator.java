@@ -0,0 +1,45 @@
+package com.example.petlog.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * chat_messages.is_read 기반 읽음 상태를 chat_room 읽음 워터마크로 이관
+ * - 웹 서버/STOMP 브로커가 시작되기 전(빈 초기화 직후)에 실행해서 이관 전 워터마크로 읽음 여부를 판단하지 않게 함
+ * - 워터마크가 비어 있는(null) 방만 대상이라 여러 번 실행돼도 결과가 같음
+ * - 워터마크 = 상대방이 보낸 안 읽은 메시지 중 가장 작은 id - 1, 모두 읽었으면 방의 마지막 메시지 id
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ChatReadStateMigrator implements SmartInitializingSingleton {
+
+    private static final String BACKFILL_SQL =
+            "UPDATE chat_room c SET %1$s_last_read_message_id = COALESCE(" +
+            "(SELECT MIN(m.id) - 1 FROM chat_messages m " +
+            "WHERE m.chat_room_id = c.id AND m.is_read = false AND m.sender_id <> c.%1$s_id), " +
+            "(SELECT MAX(m.id) FROM chat_messages m WHERE m.chat_room_id = c.id), 0) " +
+            "WHERE c.%1$s_last_read_message_id IS NULL";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        backfillReadWatermarks();
+    }
+
+    public void backfillReadWatermarks() {
+        try {
+            int user1 = jdbcTemplate.update(BACKFILL_SQL.formatted("user1"));
+            int user2 = jdbcTemplate.update(BACKFILL_SQL.formatted("user2"));
+            if (user1 + user2 > 0) {
+                log.info("읽음 워터마크 이관: user1 {}건, user2 {}건", user1, user2);
+            }
+        } catch (Exception e) {
+            log.warn("읽음 워터마크 이관 실패. 다음 기동 때 다시 시도합니다.", e);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.petlog.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 채팅방 마지막 메시지(chat_room.last_message / last_message_at) 쓰기 병합 버퍼
+ * - 메시지마다 같은 chat_room 행을 UPDATE 하면 대화가 활발한 방에서 행 잠금 경합이 생기므로,
+ *   방별로 가장 최근 메시지(id 가 가장 큰 것)만 남기고 주기적으로 JDBC 배치 UPDATE 한 번으로 반영
+ * - 채팅방 목록/응답은 pendingOf 로 아직 반영되지 않은 값을 덮어써서 보여줌 (DB 반영만 최대 flush 주기만큼 늦음)
+ * - 버퍼 값은 배치 UPDATE 가 끝난 뒤에야 지움 (지운 값이 그 사이 들어온 더 최근 값이면 남겨 둠)
+ * - chat_room.last_message_id 보다 오래된 메시지는 반영하지 않음 (커밋 순서가 id 순서와 달라도 최신 유지)
+ *
+ * 메트릭: petmate.chat.last-message.updates.received / written, petmate.chat.last-message.buffer.size,
+ *        petmate.chat.last-message.flush
+ */
+@Slf4j
+@Component
+public class ChatRoomLastMessageBuffer {
+
+    // 이미 더 최근 메시지가 반영됐으면 덮어쓰지 않음 (늦게 커밋된 메시지, 다른 인스턴스)
+    private static final String UPDATE_SQL =
+            "UPDATE chat_room SET last_message = ?, last_message_at = ?, last_message_id = ? " +
+            "WHERE id = ? AND (last_message_id IS NULL OR last_message_id < ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Map<Long, PendingLastMessage> pending = new ConcurrentHashMap<>();
+
+    private final Counter receivedCounter;
+    private final Counter writtenCounter;
+    private final Timer flushTimer;
+
+    public ChatRoomLastMessageBuffer(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.receivedCounter = Counter.builder("petmate.chat.last-message.updates.received")
+                .description("버퍼에 들어온 마지막 메시지 갱신 수")
+                .register(meterRegistry);
+        this.writtenCounter = Counter.builder("petmate.chat.last-message.updates.written")
+                .description("DB 에 실제로 반영된 행 수")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("petmate.chat.last-message.flush")
+                .description("배치 UPDATE 소요 시간")
+                .register(meterRegistry);
+        Gauge.builder("petmate.chat.last-message.buffer.size", pending, Map::size)
+                .description("반영 대기 중인 채팅방 수")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 마지막 메시지 적재 (트랜잭션 안이면 커밋 후, 이미 더 최근 메시지가 있으면 무시)
+     */
+    public void offer(Long chatRoomId, Long messageId, String preview, LocalDateTime sentAt) {
+        PendingLastMessage next = new PendingLastMessage(messageId, preview, sentAt);
+        receivedCounter.increment();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    merge(chatRoomId, next);
+                }
+            });
+        } else {
+            merge(chatRoomId, next);
+        }
+    }
+
+    /**
+     * 아직 DB 에 반영되지 않은 마지막 메시지 (없으면 null)
+     */
+    public PendingLastMessage pendingOf(Long chatRoomId) {
+        return chatRoomId != null ? pending.get(chatRoomId) : null;
+    }
+
+    @Scheduled(fixedDelayString = "${petmate.chat.last-message.flush-interval-ms:1000}")
+    public void flush() {
+        if (pending.isEmpty()) return;
+
+        // 현재 값을 복사만 해 두고, DB 반영이 끝난 뒤에 같은 값일 때만 지움
+        // (반영 전에 지우면 그 사이 목록 조회가 DB 의 옛 값을 보게 됨 / 그 사이 들어온 더 최근 값은 다음 주기로)
+        List<Long> roomIds = new ArrayList<>();
+        List<PendingLastMessage> messages = new ArrayList<>();
+        for (Map.Entry<Long, PendingLastMessage> entry : pending.entrySet()) {
+            roomIds.add(entry.getKey());
+            messages.add(entry.getValue());
+        }
+        if (roomIds.isEmpty()) return;
+
+        Timer.Sample sample = Timer.start();
+        try {
+            List<Object[]> args = new ArrayList<>(roomIds.size());
+            for (int i = 0; i < roomIds.size(); i++) {
+                PendingLastMessage message = messages.get(i);
+                args.add(new Object[]{message.preview(), Timestamp.valueOf(message.sentAt()), message.messageId(),
+                        roomIds.get(i), message.messageId()});
+            }
+            jdbcTemplate.batchUpdate(UPDATE_SQL, args);
+            writtenCounter.increment(roomIds.size());
+            for (int i = 0; i < roomIds.size(); i++) {
+                pending.remove(roomIds.get(i), messages.get(i));
+            }
+        } catch (Exception e) {
+            // 실패분은 그대로 남아 있으므로 다음 주기에 다시 반영
+            log.warn("채팅방 마지막 메시지 배치 반영 실패 ({}건). 다음 주기에 재시도합니다.", roomIds.size(), e);
+        } finally {
+            sample.stop(flushTimer);
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private void merge(Long chatRoomId, PendingLastMessage next) {
+        pending.merge(chatRoomId, next, (previous, candidate) ->
+                candidate.messageId() > previous.messageId() ? candidate : previous);
+    }
+
+    public record PendingLastMessage(Long messageId, String preview, LocalDateTime sentAt) {
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.petlog.service;
+
+import com.example.petlog.dto.response.UserInfoResponse;
+import com.example.petlog.entity.ChatRoom;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 채팅방별 참여자(2명) 표시 정보 스냅샷 캐시 (이름 / 아바타 / 첫 번째 반려동물 이름)
+ * - 방마다 한 번 두 사람을 함께 조회해서 보관, 메시지/채팅방 목록/소켓 브로드캐스트 DTO 를 여기서 채움
+ * - refresh 시간이 지나면 기존 스냅샷을 주면서 백그라운드에서 다시 조회
+ * - User Service 조회에 실패한 참여자가 있으면 기본값으로 응답하되 캐시에 넣지 않음 (다음 요청에서 재시도)
+ *
+ * 메트릭: cache.gets / cache.puts / cache.evictions 등 (cache=roomParticipants)
+ */
+@Component
+public class ChatRoomParticipantCache {
+
+    private final UserInfoResolver userInfoResolver;
+    private final LoadingCache<Long, RoomParticipants> snapshots;
+
+    public ChatRoomParticipantCache(UserInfoResolver userInfoResolver,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${petmate.room-participants.maximum-size:10000}") long maximumSize,
+                                    @Value("${petmate.room-participants.refresh-after-seconds:300}") long refreshAfterSeconds,
+                                    @Value("${petmate.room-participants.expire-after-seconds:3600}") long expireAfterSeconds) {
+        this.userInfoResolver = userInfoResolver;
+        this.snapshots = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .refreshAfterWrite(Duration.ofSeconds(refreshAfterSeconds))
+                .expireAfterWrite(Duration.ofSeconds(expireAfterSeconds))
+                .recordStats()
+                .build(new CacheLoader<>() {
+                    // 방 정보 없이 키만으로는 적재하지 않음 (get(ChatRoom) 으로만 채움)
+                    @Override
+                    public RoomParticipants load(Long chatRoomId) {
+                        return null;
+                    }
+
+                    // 갱신은 기존 스냅샷의 참여자 id 로 다시 조회, 일부 실패하면 기존 값 유지
+                    @Override
+                    public RoomParticipants reload(Long chatRoomId, RoomParticipants old) {
+                        RoomParticipants reloaded = resolve(old.user1().userId(), old.user2().userId(),
+                                userInfoResolver.resolveAll(List.of(old.user1().userId(), old.user2().userId())));
+                        return reloaded.complete() ? reloaded : old;
+                    }
+                });
+        CaffeineCacheMetrics.monitor(meterRegistry, snapshots, "roomParticipants");
+    }
+
+    /**
+     * 채팅방 참여자 스냅샷 (캐시에 없으면 두 사람을 한 번에 조회)
+     */
+    public RoomParticipants get(ChatRoom room) {
+        RoomParticipants cached = snapshots.getIfPresent(room.getId());
+        if (cached != null) return cached;
+
+        RoomParticipants loaded = resolve(room.getUser1Id(), room.getUser2Id(),
+                userInfoResolver.resolveAll(List.of(room.getUser1Id(), room.getUser2Id())));
+        if (loaded.complete()) {
+            snapshots.put(room.getId(), loaded);
+        }
+        return loaded;
+    }
+
+    /**
+     * 캐시에 있는 스냅샷만 반환 (없으면 null, 원격 호출 없음)
+     */
+    public RoomParticipants getIfPresent(Long chatRoomId) {
+        return snapshots.getIfPresent(chatRoomId);
+    }
+
+    /**
+     * 여러 채팅방 참여자 스냅샷 (캐시에 없는 방들의 참여자는 모아서 한 번에 조회)
+     */
+    public Map<Long, RoomParticipants> getAll(Collection<ChatRoom> rooms) {
+        Map<Long, RoomParticipants> result = new HashMap<>();
+        List<ChatRoom> missing = new ArrayList<>();
+        List<Long> missingUserIds = new ArrayList<>();
+        for (ChatRoom room : rooms) {
+            RoomParticipants cached = snapshots.getIfPresent(room.getId());
+            if (cached != null) {
+                result.put(room.getId(), cached);
+            } else {
+                missing.add(room);
+                missingUserIds.add(room.getUser1Id());
+                missingUserIds.add(room.getUser2Id());
+            }
+        }
+        if (missing.isEmpty()) return result;
+
+        Map<Long, UserInfoResponse> users = userInfoResolver.resolveAll(missingUserIds);
+        for (ChatRoom room : missing) {
+            RoomParticipants loaded = resolve(room.getUser1Id(), room.getUser2Id(), users);
+            if (loaded.complete()) {
+                snapshots.put(room.getId(), loaded);
+            }
+            result.put(room.getId(), loaded);
+        }
+        return result;
+    }
+
+    public void evict(Long chatRoomId) {
+        if (chatRoomId != null) snapshots.invalidate(chatRoomId);
+    }
+
+    private static RoomParticipants resolve(Long user1Id, Long user2Id, Map<Long, UserInfoResponse> users) {
+        return new RoomParticipants(Participant.of(user1Id, users.get(user1Id)),
+                Participant.of(user2Id, users.get(user2Id)));
+    }
+
+    public record RoomParticipants(Participant user1, Participant user2) {
+
+        /**
+         * 참여자 정보 (방에 없는 사용자면 기본값)
+         */
+        public Participant of(Long userId) {
+            if (user1.userId().equals(userId)) return user1;
+            if (user2.userId().equals(userId)) return user2;
+            return Participant.of(userId, null);
+        }
+
+        public Participant otherThan(Long userId) {
+            return user1.userId().equals(userId) ? user2 : user1;
+        }
+
+        private boolean complete() {
+            return user1.resolved() && user2.resolved();
+        }
+    }
+
+    /**
+     * resolved 가 false 면 User Service 조회 실패로 기본값을 채운 상태
+     */
+    public record Participant(Long userId, String name, String avatar, String petName, boolean resolved) {
+
+        private static Participant of(Long userId, UserInfoResponse userInfo) {
+            if (userInfo == null) {
+                return new Participant(userId, "User " + userId, null, "반려동물", false);
+            }
+            String petName = "반려동물";
+            if (userInfo.getPets() != null && !userInfo.getPets().isEmpty()) {
+                petName = userInfo.getPets().get(0).getPetName();
+            }
+            return new Participant(userId, userInfo.getUsername(), userInfo.getProfileImage(), petName, true);
+        }
+    }
+}
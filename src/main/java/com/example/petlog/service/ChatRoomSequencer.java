@@ -0,0 +1,134 @@
+package com.example.petlog.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 채팅방별 메시지 순번(seq) 발급기
+ * - 방마다 메모리 카운터 하나, 처음 쓰일 때 DB 의 MAX(seq) 로 초기화 (uk_chat_messages_room_seq 인덱스 조회 1번)
+ * - 초기화는 방 id 로 나눈 잠금 구간(stripe)별로 직렬화해서 같은 방을 두 번 읽지 않고, 다른 방끼리는 막지 않음
+ * - 발급은 AtomicLong 증가라 전송 경로에서 잠금/쿼리 없음
+ * - 트랜잭션 안에서 발급(nextInTransaction)하면 커밋/롤백까지 방 잠금을 잡아서 순번 순서 = 커밋 순서
+ *   (더 큰 순번이 먼저 보이는 일이 없으므로, 보이는 가장 큰 순번 아래의 빈 번호는 롤백된 메시지뿐)
+ * - 한동안 쓰이지 않은 방 카운터는 메모리에서 내림 (다음에 다시 DB 에서 초기화)
+ *
+ * 메모리 카운터라 한 방의 메시지는 한 인스턴스가 받는다는 전제 (SimpleBroker 로 브로드캐스트하는 현재 구성과 같음)
+ * 전제가 깨져 같은 순번이 나오면 uk_chat_messages_room_seq 위반으로 저장이 실패함
+ * 저장에 실패한(롤백된) 메시지의 순번은 다시 쓰지 않으므로 순번에 빈 번호가 남을 수 있음
+ */
+@Slf4j
+@Component
+public class ChatRoomSequencer {
+
+    private static final int STRIPES = 64;
+    private static final String MAX_SEQ_SQL = "SELECT MAX(seq) FROM chat_messages WHERE chat_room_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long idleMinutes;
+
+    private final Map<Long, RoomCounter> counters = new ConcurrentHashMap<>();
+    private final Object[] stripes = new Object[STRIPES];
+
+    public ChatRoomSequencer(JdbcTemplate jdbcTemplate,
+                             @Value("${petmate.chat.sequence.idle-minutes:60}") long idleMinutes) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.idleMinutes = idleMinutes;
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Object();
+        }
+    }
+
+    /**
+     * 다음 순번 발급
+     */
+    public long next(Long chatRoomId) {
+        return counterOf(chatRoomId).value.incrementAndGet();
+    }
+
+    /**
+     * 트랜잭션 안에서 다음 순번 발급 (트랜잭션이 끝날 때까지 같은 방의 다른 발급은 대기)
+     * 잠금 구간이 INSERT + 커밋뿐이도록 다른 조회/원격 호출을 마친 뒤 호출해야 함
+     */
+    public long nextInTransaction(Long chatRoomId) {
+        RoomCounter counter = counterOf(chatRoomId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            counter.commitLock.lock();
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    counter.commitLock.unlock();
+                }
+            });
+        }
+        return counter.value.incrementAndGet();
+    }
+
+    /**
+     * 마지막으로 발급된 순번 (아직 없으면 0)
+     */
+    public long current(Long chatRoomId) {
+        return counterOf(chatRoomId).value.get();
+    }
+
+    /**
+     * 방 카운터를 내려서 다음 사용 때 DB 에서 다시 초기화 (순번 이관 후 등)
+     */
+    public void evict(Long chatRoomId) {
+        synchronized (stripeOf(chatRoomId)) {
+            counters.remove(chatRoomId);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${petmate.chat.sequence.evict-interval-ms:600000}")
+    public void evictIdle() {
+        // 저장 대기(write-behind) 중인 메시지가 남아 있을 수 없을 만큼 오래 쓰이지 않은 방만
+        long idleSince = System.currentTimeMillis() - idleMinutes * 60_000;
+        counters.forEach((roomId, counter) -> {
+            if (counter.lastUsedMillis < idleSince) {
+                synchronized (stripeOf(roomId)) {
+                    counters.remove(roomId, counter);
+                }
+            }
+        });
+    }
+
+    private RoomCounter counterOf(Long chatRoomId) {
+        RoomCounter counter = counters.get(chatRoomId);
+        if (counter == null) {
+            synchronized (stripeOf(chatRoomId)) {
+                counter = counters.get(chatRoomId);
+                if (counter == null) {
+                    Long maxSeq = jdbcTemplate.queryForObject(MAX_SEQ_SQL, Long.class, chatRoomId);
+                    counter = new RoomCounter(maxSeq != null ? maxSeq : 0L);
+                    counters.put(chatRoomId, counter);
+                }
+            }
+        }
+        counter.lastUsedMillis = System.currentTimeMillis();
+        return counter;
+    }
+
+    private Object stripeOf(Long chatRoomId) {
+        return stripes[Math.floorMod(Long.hashCode(chatRoomId), STRIPES)];
+    }
+
+    private static final class RoomCounter {
+        private final AtomicLong value;
+        private final ReentrantLock commitLock = new ReentrantLock();
+        private volatile long lastUsedMillis = System.currentTimeMillis();
+
+        private RoomCounter(long seed) {
+            this.value = new AtomicLong(seed);
+        }
+    }
+}
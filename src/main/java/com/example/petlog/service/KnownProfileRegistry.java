@@ -0,0 +1,102 @@
+package com.example.petlog.service;
+
+import com.example.petlog.repository.PetMateRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * PetMate 프로필이 이미 있는 userId 집합 (Roaring 비트맵)
+ * - 서버 기동 시 전체 userId 를 적재하고, 프로필 생성 시 추가 (프로필은 삭제되지 않음)
+ * - 집합에 있으면 existsByUserId 쿼리 없이 바로 true
+ *
+ * 메트릭: petmate.profile.exists.checks{source=memory|db}
+ *        (memory = 생략된 DB 왕복 수, db = 실제 조회 수)
+ */
+@Slf4j
+@Component
+public class KnownProfileRegistry {
+
+    private final PetMateRepository petMateRepository;
+
+    private final Roaring64Bitmap userIds = new Roaring64Bitmap();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Counter memoryHits;
+    private final Counter dbLookups;
+
+    public KnownProfileRegistry(PetMateRepository petMateRepository, MeterRegistry meterRegistry) {
+        this.petMateRepository = petMateRepository;
+        this.memoryHits = Counter.builder("petmate.profile.exists.checks")
+                .tag("source", "memory")
+                .description("메모리에서 바로 확인한 프로필 존재 여부 (생략된 DB 왕복)")
+                .register(meterRegistry);
+        this.dbLookups = Counter.builder("petmate.profile.exists.checks")
+                .tag("source", "db")
+                .description("DB 로 확인한 프로필 존재 여부")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        try {
+            List<Long> all = petMateRepository.findAllUserIds();
+            lock.writeLock().lock();
+            try {
+                all.forEach(userIds::addLong);
+                userIds.runOptimize();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.info("PetMate 프로필 userId 적재 완료: {}건", all.size());
+        } catch (Exception e) {
+            log.error("PetMate 프로필 userId 적재 실패. DB 조회로 대체합니다.", e);
+        }
+    }
+
+    /**
+     * 프로필 존재 여부 (메모리에 없으면 DB 확인 후 있으면 기억)
+     */
+    public boolean exists(Long userId) {
+        if (contains(userId)) {
+            memoryHits.increment();
+            return true;
+        }
+
+        dbLookups.increment();
+        boolean exists = petMateRepository.existsByUserId(userId);
+        if (exists) {
+            add(userId);
+        }
+        return exists;
+    }
+
+    /**
+     * 프로필 생성 시 등록
+     */
+    public void add(Long userId) {
+        if (userId == null) return;
+        lock.writeLock().lock();
+        try {
+            userIds.addLong(userId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private boolean contains(Long userId) {
+        lock.readLock().lock();
+        try {
+            return userIds.contains(userId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
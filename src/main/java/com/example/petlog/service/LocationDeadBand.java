@@ -0,0 +1,73 @@
+package com.example.petlog.service;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * 위치 스트림 데드밴드
+ * - 마지막으로 반영한 위치에서 최소 거리 미만으로 움직였거나
+ *   최소 간격 안에 다시 들어온 업데이트는 버림
+ * - 정지/미세 흔들림 GPS 값으로 인한 쓰기를 줄이기 위함
+ * - 기준 위치는 크기 제한 + 유휴 만료 캐시에 보관 (오래 안 쓰인 사용자는 내리고, 다음 업데이트는 그대로 반영)
+ */
+@Component
+public class LocationDeadBand {
+
+    private final double minDistanceMeters;
+    private final long minIntervalMs;
+    private final Map<Long, Accepted> lastAccepted;
+
+    public LocationDeadBand(@Value("${petmate.location.min-distance-meters:30}") double minDistanceMeters,
+                            @Value("${petmate.location.min-interval-ms:5000}") long minIntervalMs,
+                            @Value("${petmate.location.dead-band.maximum-size:100000}") long maximumSize,
+                            @Value("${petmate.location.dead-band.idle-minutes:30}") long idleMinutes) {
+        this.minDistanceMeters = minDistanceMeters;
+        this.minIntervalMs = minIntervalMs;
+        this.lastAccepted = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterAccess(Duration.ofMinutes(idleMinutes))
+                .<Long, Accepted>build()
+                .asMap();
+    }
+
+    /**
+     * 반영할 업데이트인지 판단하고, 반영 대상이면 기준 위치로 기록
+     */
+    public boolean accept(Long userId, double latitude, double longitude) {
+        long now = System.currentTimeMillis();
+        boolean[] accepted = {false};
+        lastAccepted.compute(userId, (id, previous) -> {
+            if (previous != null) {
+                if (now - previous.atMillis() < minIntervalMs) return previous;
+                double movedMeters = PetMateGeoIndex.distanceKm(previous.latitude(), previous.longitude(),
+                        latitude, longitude) * 1000;
+                if (movedMeters < minDistanceMeters) return previous;
+            }
+            accepted[0] = true;
+            return new Accepted(latitude, longitude, now);
+        });
+        return accepted[0];
+    }
+
+    /**
+     * 데드밴드를 거치지 않고 반영된 위치(REST 등)를 기준 위치로 기록
+     */
+    public void record(Long userId, double latitude, double longitude) {
+        lastAccepted.put(userId, new Accepted(latitude, longitude, System.currentTimeMillis()));
+    }
+
+    /**
+     * 기준 위치 삭제 (오프라인 전환 시, 다음 업데이트는 그대로 반영)
+     */
+    public void forget(Long userId) {
+        if (userId == null) return;
+        lastAccepted.remove(userId);
+    }
+
+    private record Accepted(double latitude, double longitude, long atMillis) {
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.petlog.service;
+
+import com.example.petlog.dto.response.AddressResponse;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * 위치 스트림용 지역명(예: "강남구 역삼동") 지연 조회
+ * - 공간 인덱스 셀 단위로 Kakao 역지오코딩 결과를 캐시 (같은 셀이면 API 재호출 없음)
+ * - 캐시에 없으면 요청 스레드를 막지 않고 백그라운드에서 조회 후 콜백으로 전달
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LocationLabelResolver {
+
+    private static final int MAX_CACHED_CELLS = 10_000;
+    private static final int MAX_QUEUED_LOOKUPS = 1_000;
+
+    private final GeocodingService geocodingService;
+
+    // 셀 키 -> 지역명 (LRU)
+    private final Map<Long, String> labels = Collections.synchronizedMap(
+            new LinkedHashMap<>(256, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, String> eldest) {
+                    return size() > MAX_CACHED_CELLS;
+                }
+            });
+
+    // 조회 중인 셀 -> 결과를 기다리는 콜백 (같은 셀 중복 호출 방지)
+    private final Map<Long, List<Consumer<String>>> waiters = new ConcurrentHashMap<>();
+
+    private final ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(MAX_QUEUED_LOOKUPS), runnable -> {
+                Thread thread = new Thread(runnable, "location-label-resolver");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    /**
+     * 캐시된 지역명 반환, 없으면 null 을 반환하고 조회가 끝나면 onResolved 호출
+     */
+    public String resolve(double latitude, double longitude, Consumer<String> onResolved) {
+        long cellKey = PetMateGeoIndex.cellKey(latitude, longitude);
+        String cached = labels.get(cellKey);
+        if (cached != null) return cached;
+
+        boolean[] first = {false};
+        waiters.compute(cellKey, (key, list) -> {
+            if (list == null) {
+                list = new ArrayList<>();
+                first[0] = true;
+            }
+            list.add(onResolved);
+            return list;
+        });
+        if (!first[0]) return null;
+
+        try {
+            executor.execute(() -> lookup(cellKey, latitude, longitude));
+        } catch (RejectedExecutionException e) {
+            // 대기열이 가득 차면 이번에는 포기 (다음 업데이트 때 다시 시도)
+            waiters.remove(cellKey);
+        }
+        return null;
+    }
+
+    private void lookup(long cellKey, double latitude, double longitude) {
+        String label = null;
+        try {
+            label = toLabel(geocodingService.getAddressFromCoords(longitude, latitude));
+            if (label != null) {
+                labels.put(cellKey, label);
+            }
+        } catch (Exception e) {
+            log.warn("지역명 조회 실패 (lat: {}, lng: {}): {}", latitude, longitude, e.getMessage());
+        }
+
+        List<Consumer<String>> callbacks = waiters.remove(cellKey);
+        if (label == null || callbacks == null) return;
+        for (Consumer<String> callback : callbacks) {
+            try {
+                callback.accept(label);
+            } catch (Exception e) {
+                log.warn("지역명 반영 실패", e);
+            }
+        }
+    }
+
+    // "구/군 동/읍/면" 형태, 없으면 시/도
+    private static String toLabel(AddressResponse address) {
+        if (address == null) return null;
+        if (address.getRegion2() != null && address.getRegion3() != null) {
+            return address.getRegion2() + " " + address.getRegion3();
+        }
+        return address.getRegion1();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
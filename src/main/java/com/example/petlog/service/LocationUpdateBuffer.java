@@ -0,0 +1,131 @@
+package com.example.petlog.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 위치 업데이트 쓰기 병합 버퍼
+ * - 사용자별 마지막 위치만 남기고(last-write-wins) 주기적으로 JDBC 배치 UPDATE 한 번으로 반영
+ * - GPS 가 몇 초마다 보내는 위치를 매번 트랜잭션으로 저장하지 않기 위함
+ * - 공간 인덱스/스냅샷은 호출 측에서 즉시 갱신하고, DB 반영만 늦춤 (최대 flush 주기만큼)
+ *
+ * 메트릭: petmate.location.updates.received / written, petmate.location.coalescing.ratio,
+ *        petmate.location.buffer.size, petmate.location.flush
+ */
+@Slf4j
+@Component
+public class LocationUpdateBuffer {
+
+    private static final String UPDATE_SQL =
+            "UPDATE pet_mates SET latitude = ?, longitude = ?, location = COALESCE(?, location), " +
+            "updated_at = ? WHERE user_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Map<Long, PendingLocation> pending = new ConcurrentHashMap<>();
+
+    private final Counter receivedCounter;
+    private final Counter writtenCounter;
+    private final Timer flushTimer;
+
+    public LocationUpdateBuffer(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.receivedCounter = Counter.builder("petmate.location.updates.received")
+                .description("버퍼에 들어온 위치 업데이트 수")
+                .register(meterRegistry);
+        this.writtenCounter = Counter.builder("petmate.location.updates.written")
+                .description("DB 에 실제로 반영된 행 수")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("petmate.location.flush")
+                .description("배치 UPDATE 소요 시간")
+                .register(meterRegistry);
+        Gauge.builder("petmate.location.buffer.size", pending, Map::size)
+                .description("반영 대기 중인 사용자 수")
+                .register(meterRegistry);
+        Gauge.builder("petmate.location.coalescing.ratio", this, LocationUpdateBuffer::coalescingRatio)
+                .description("받은 업데이트 수 / DB 반영 행 수")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 위치 업데이트 적재 (같은 사용자의 이전 대기분은 덮어씀, 지역명은 새 값이 없으면 유지)
+     */
+    public void offer(Long userId, Double latitude, Double longitude, String location) {
+        LocalDateTime now = LocalDateTime.now();
+        pending.merge(userId, new PendingLocation(latitude, longitude, location, now),
+                (previous, next) -> next.location() != null ? next
+                        : new PendingLocation(next.latitude(), next.longitude(), previous.location(), now));
+        receivedCounter.increment();
+    }
+
+    /**
+     * 아직 DB 에 반영되지 않은 위치 (없으면 null)
+     */
+    public PendingLocation pendingOf(Long userId) {
+        return pending.get(userId);
+    }
+
+    @Scheduled(fixedDelayString = "${petmate.location.flush-interval-ms:300}")
+    public void flush() {
+        if (pending.isEmpty()) return;
+
+        // 키 단위로 꺼내서 꺼낸 뒤 들어온 업데이트는 다음 주기로 넘김
+        List<Long> userIds = new ArrayList<>();
+        List<PendingLocation> locations = new ArrayList<>();
+        for (Long userId : pending.keySet()) {
+            PendingLocation location = pending.remove(userId);
+            if (location != null) {
+                userIds.add(userId);
+                locations.add(location);
+            }
+        }
+        if (userIds.isEmpty()) return;
+
+        Timer.Sample sample = Timer.start();
+        try {
+            List<Object[]> args = new ArrayList<>(userIds.size());
+            for (int i = 0; i < userIds.size(); i++) {
+                PendingLocation location = locations.get(i);
+                Timestamp updatedAt = Timestamp.valueOf(location.updatedAt());
+                args.add(new Object[]{location.latitude(), location.longitude(), location.location(),
+                        updatedAt, userIds.get(i)});
+            }
+            jdbcTemplate.batchUpdate(UPDATE_SQL, args);
+            writtenCounter.increment(userIds.size());
+        } catch (Exception e) {
+            // 실패분은 되돌려 놓되, 그 사이 들어온 더 새로운 값이 있으면 그것을 유지
+            for (int i = 0; i < userIds.size(); i++) {
+                pending.putIfAbsent(userIds.get(i), locations.get(i));
+            }
+            log.warn("위치 배치 반영 실패 ({}건). 다음 주기에 재시도합니다.", userIds.size(), e);
+        } finally {
+            sample.stop(flushTimer);
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private double coalescingRatio() {
+        double written = writtenCounter.count();
+        return written > 0 ? receivedCounter.count() / written : 0.0;
+    }
+
+    public record PendingLocation(Double latitude, Double longitude, String location, LocalDateTime updatedAt) {
+    }
+}
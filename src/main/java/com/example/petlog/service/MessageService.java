@@ -1,23 +1,31 @@
 package com.example.petlog.service;
 
-import com.example.petlog.client.UserServiceClient;
 import com.example.petlog.dto.request.MessageRequest;
 import com.example.petlog.dto.response.ChatRoomResponse;
+import com.example.petlog.dto.response.MessagePageResponse;
 import com.example.petlog.dto.response.MessageResponse;
-import com.example.petlog.dto.response.UserInfoResponse;
 import com.example.petlog.entity.ChatRoom;
 import com.example.petlog.entity.Message;
+import com.example.petlog.exception.BusinessException;
+import com.example.petlog.exception.ErrorCode;
 import com.example.petlog.repository.ChatRoomRepository;
 import com.example.petlog.repository.MessageRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 
 @Service
@@ -27,7 +35,14 @@ public class MessageService {
 
     private final ChatRoomRepository chatRoomRepository;
     private final MessageRepository messageRepository;
-    private final UserServiceClient userServiceClient;
+    private final ChatRoomParticipantCache participantCache;
+    private final BadgeCounters badgeCounters;
+    private final ChatMessageWriteBehind writeBehind;
+    private final ChatRoomLastMessageBuffer lastMessageBuffer;
+    private final ChatRoomSequencer sequencer;
+    private final TransactionTemplate transactionTemplate;
+
+    private static final int MAX_PAGE_SIZE = 100;
 
     // 1. 채팅방 생성 또는 조회
     @Transactional
@@ -39,7 +54,7 @@ public class MessageService {
             }
 
             return roomOpt
-                    .map(room -> convertToChatRoomResponse(room, userId1))
+                    .map(room -> convertToChatRoomResponse(room, userId1, participantCache.get(room)))
                     .orElseGet(() -> {
                         ChatRoom room = ChatRoom.builder()
                                 .user1Id(userId1)
@@ -48,7 +63,7 @@ public class MessageService {
                                 .createdAt(LocalDateTime.now())
                                 .build();
                         ChatRoom savedRoom = chatRoomRepository.save(room);
-                        return convertToChatRoomResponse(savedRoom, userId1);
+                        return convertToChatRoomResponse(savedRoom, userId1, participantCache.get(savedRoom));
                     });
         } catch (Exception e) {
             log.error("채팅방 생성 에러: ", e);
@@ -58,81 +73,67 @@ public class MessageService {
 
     @Transactional(readOnly = true)
     public List<ChatRoomResponse> getChatRooms(Long userId) {
-        System.out.println("============ [Debug] getChatRooms 시작 ============");
         try {
             // 1. DB 조회
-            System.out.println("[Debug] 1. DB 조회 시도 (UserId: " + userId + ")");
             List<ChatRoom> rooms = chatRoomRepository.findMyChatRooms(userId);
-            System.out.println("[Debug] 2. DB 조회 성공. 방 개수: " + (rooms != null ? rooms.size() : "NULL"));
-
             if (rooms == null) return new ArrayList<>();
+            log.debug("채팅방 목록 조회 - UserId: {}, 방 개수: {}", userId, rooms.size());
+
+            // 2. 정렬 - 정렬 기준 시각은 방마다 한 번만 계산
+            //    (비교 중에 버퍼 값이 바뀌면 비교 결과가 어긋나 정렬이 예외로 실패할 수 있음)
+            LocalDateTime now = LocalDateTime.now();
+            Map<Long, LocalDateTime> sortKeys = new HashMap<>();
+            for (ChatRoom room : rooms) {
+                LocalDateTime at = lastMessageAtOf(room) != null ? lastMessageAtOf(room) : room.getCreatedAt();
+                sortKeys.put(room.getId(), at != null ? at : now);
+            }
+            rooms.sort((r1, r2) -> sortKeys.get(r2.getId()).compareTo(sortKeys.get(r1.getId())));
 
-            // 2. 정렬
-            System.out.println("[Debug] 3. 정렬 시작");
-            rooms.sort((r1, r2) -> {
-                LocalDateTime t1 = r1.getLastMessageAt() != null ? r1.getLastMessageAt() : r1.getCreatedAt();
-                LocalDateTime t2 = r2.getLastMessageAt() != null ? r2.getLastMessageAt() : r2.getCreatedAt();
-                if (t1 == null) t1 = LocalDateTime.now();
-                if (t2 == null) t2 = LocalDateTime.now();
-                return t2.compareTo(t1);
-            });
-
-            // 3. 변환
-            System.out.println("[Debug] 4. DTO 변환 시작");
+            // 3. 변환 ([성능] 참여자 정보는 방별 캐시, 캐시에 없는 방들만 모아서 한 번에 조회)
+            Map<Long, ChatRoomParticipantCache.RoomParticipants> participants = participantCache.getAll(rooms);
             List<ChatRoomResponse> responseList = new ArrayList<>();
             for (ChatRoom room : rooms) {
                 try {
-                    System.out.println("   -> 방 ID " + room.getId() + " 변환 중...");
-                    responseList.add(convertToChatRoomResponse(room, userId));
+                    responseList.add(convertToChatRoomResponse(room, userId, participants.get(room.getId())));
                 } catch (Exception innerEx) {
-                    System.err.println("   -> [ERROR] 방 ID " + room.getId() + " 변환 실패: " + innerEx.getMessage());
-                    innerEx.printStackTrace(); // 에러 스택 출력
+                    // 변환에 실패한 방만 빼고 나머지는 응답
+                    log.error("채팅방 변환 실패 - RoomId: {}, UserId: {}", room.getId(), userId, innerEx);
                 }
             }
-
-            System.out.println("============ [Debug] getChatRooms 종료 (성공) ============");
             return responseList;
 
         } catch (Exception e) {
-            System.err.println("============ [CRITICAL ERROR] getChatRooms 터짐 ============");
-            e.printStackTrace(); // 콘솔에 빨간 글씨로 에러 원인 출력
+            log.error("채팅방 목록 조회 실패 - UserId: {}", userId, e);
             return new ArrayList<>(); // 죽지 않고 빈 리스트 반환
         }
     }
 
     // 3. 메시지 전송
-    // 3. 메시지 전송
-    @Transactional
+    // [성능] write-behind 모드면 id 만 부여하고 바로 응답 (DB 저장은 ChatMessageWriteBehind 가 배치로)
     public MessageResponse sendMessage(MessageRequest request) {
+        if (writeBehind.isEnabled()) {
+            return enqueueMessage(request);
+        }
+        return transactionTemplate.execute(status -> sendMessageInTransaction(request));
+    }
+
+    private MessageResponse sendMessageInTransaction(MessageRequest request) {
         ChatRoom chatRoom = chatRoomRepository.findById(request.getChatRoomId())
                 .orElseThrow(() -> new IllegalArgumentException("채팅방이 존재하지 않습니다."));
 
         // [1] 먼저 메시지 타입을 판별합니다.
-        Message.MessageType type = Message.MessageType.TEXT;
-        if (request.getMessageType() != null) {
-            try {
-                // 대소문자 무관하게 처리 (예: "image" -> IMAGE)
-                type = Message.MessageType.valueOf(request.getMessageType().toUpperCase());
-            } catch (IllegalArgumentException e) {
-                log.warn("Invalid message type: {}. Defaulting to TEXT.", request.getMessageType());
-                type = Message.MessageType.TEXT;
-            }
-        }
+        Message.MessageType type = messageTypeOf(request);
 
         // [2] 채팅방 목록에 보여줄 미리보기 텍스트 결정 (이미지면 "사진", 아니면 내용 그대로)
-        String previewContent = request.getContent();
-        if (type == Message.MessageType.IMAGE) {
-            previewContent = "사진";
-        }
-
-        // [3] 채팅방 정보 업데이트 (마지막 메시지 내용 및 시간)
-        chatRoom.setLastMessage(previewContent);
-        chatRoom.setLastMessageAt(LocalDateTime.now());
-        chatRoomRepository.save(chatRoom);
+        String previewContent = previewOf(type, request.getContent());
+        // 참여자 정보(원격 조회일 수 있음)는 순번 잠금을 잡기 전에
+        ChatRoomParticipantCache.RoomParticipants participants = participantCache.get(chatRoom);
 
-        // [4] 실제 메시지 저장
+        // [3] 실제 메시지 저장
         Message message = Message.builder()
                 .chatRoom(chatRoom)
+                // 방 안 순번 - 커밋까지 방 잠금을 잡아 커밋 순서대로 보이게 함 (롤백되면 빈 번호로 남음)
+                .seq(sequencer.nextInTransaction(chatRoom.getId()))
                 .senderId(request.getSenderId())
                 .content(request.getContent()) // DB에는 원본 URL 저장
                 .messageType(type)             // [중요 수정] 위에서 판별한 type 변수를 사용 (기존 코드의 하드코딩 TEXT 제거)
@@ -141,15 +142,54 @@ public class MessageService {
                 .build();
 
         Message saved = messageRepository.save(message);
-        return convertToMessageResponse(saved);
+        // [4] 채팅방 마지막 메시지는 [성능] 메모리에 모아 두었다가 배치로 반영 (chat_room 행 잠금 경합 방지)
+        lastMessageBuffer.offer(chatRoom.getId(), saved.getId(), previewContent, saved.getCreatedAt());
+        badgeCounters.addUnreadMessages(otherUserIdOf(chatRoom, request.getSenderId()), 1);
+        return convertToMessageResponse(saved, participants);
+    }
+
+    // 참여자 스냅샷이 캐시에 있으면 DB 조회 없이 버퍼에 적재 (id / 순번은 버퍼에서 부여, 배지 카운터는 저장 완료 후 반영)
+    private MessageResponse enqueueMessage(MessageRequest request) {
+        ChatRoomParticipantCache.RoomParticipants participants = participantsOf(request.getChatRoomId());
+
+        Message.MessageType type = messageTypeOf(request);
+        ChatMessageWriteBehind.PendingMessage queued = writeBehind.enqueue(new ChatMessageWriteBehind.PendingMessage(
+                null, request.getChatRoomId(), null, request.getSenderId(),
+                participants.otherThan(request.getSenderId()).userId(), request.getClientMessageId(),
+                request.getContent(), type, previewOf(type, request.getContent()), LocalDateTime.now()));
+        if (queued == null) {
+            throw new BusinessException(ErrorCode.CHAT_BUFFER_FULL);
+        }
+        return convertToMessageResponse(queued, participants);
+    }
+
+    private ChatRoomParticipantCache.RoomParticipants participantsOf(Long chatRoomId) {
+        ChatRoomParticipantCache.RoomParticipants participants = participantCache.getIfPresent(chatRoomId);
+        if (participants != null) return participants;
+        ChatRoom chatRoom = chatRoomRepository.findById(chatRoomId)
+                .orElseThrow(() -> new IllegalArgumentException("채팅방이 존재하지 않습니다."));
+        return participantCache.get(chatRoom);
+    }
+
+    private static Message.MessageType messageTypeOf(MessageRequest request) {
+        if (request.getMessageType() == null) return Message.MessageType.TEXT;
+        try {
+            // 대소문자 무관하게 처리 (예: "image" -> IMAGE)
+            return Message.MessageType.valueOf(request.getMessageType().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid message type: {}. Defaulting to TEXT.", request.getMessageType());
+            return Message.MessageType.TEXT;
+        }
+    }
+
+    private static String previewOf(Message.MessageType type, String content) {
+        return type == Message.MessageType.IMAGE ? "사진" : content;
     }
 
     // 4. 메시지 내역 조회
     @Transactional(readOnly = true)
     public List<MessageResponse> getMessages(Long chatRoomId, Long userId) {
-        return messageRepository.findByChatRoomIdOrderByCreatedAtAsc(chatRoomId).stream()
-                .map(this::convertToMessageResponse)
-                .collect(Collectors.toList());
+        return convertToMessageResponses(messageRepository.findByChatRoomIdOrderByCreatedAtAsc(chatRoomId));
     }
 
     @Transactional
@@ -171,68 +211,155 @@ public class MessageService {
         chatRoomRepository.save(chatRoom);
     }
 
+    /**
+     * 메시지 내역 키셋 페이지 조회 (표시 순서: 오래된 -> 최신)
+     * - beforeId 가 있으면 그 이전 limit 개, afterId 가 있으면 그 이후 limit 개, 둘 다 없으면 최신 limit 개
+     */
+    @Transactional(readOnly = true)
+    public MessagePageResponse getMessagePage(Long chatRoomId, Long userId, Long beforeId, Long afterId, int limit) {
+        if (beforeId != null && afterId != null) {
+            throw new IllegalArgumentException("before 와 after 는 함께 사용할 수 없습니다.");
+        }
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+
+        // 다음 페이지 존재 여부 확인을 위해 1건 더 조회
+        List<Message> rows = afterId != null
+                ? messageRepository.findByChatRoomIdAndIdGreaterThanOrderByIdAsc(chatRoomId, afterId, Limit.of(pageSize + 1))
+                : messageRepository.findByChatRoomIdAndIdLessThanOrderByIdDesc(chatRoomId,
+                        beforeId != null ? beforeId : Long.MAX_VALUE, Limit.of(pageSize + 1));
+
+        boolean hasMore = rows.size() > pageSize;
+        List<Message> page = new ArrayList<>(hasMore ? rows.subList(0, pageSize) : rows);
+        if (afterId == null) {
+            // 최신 순으로 읽었으므로 뒤집기만 하면 표시 순서
+            Collections.reverse(page);
+        }
+
+        return MessagePageResponse.builder()
+                .messages(convertToMessageResponses(page))
+                .oldestId(page.isEmpty() ? null : page.get(0).getId())
+                .newestId(page.isEmpty() ? null : page.get(page.size() - 1).getId())
+                .hasMore(hasMore)
+                .build();
+    }
+
+    /**
+     * 재연결 동기화: 방 순번 afterSeq 이후 메시지 (순번 순, 최대 limit 개)
+     * - write-behind 버퍼에서 저장 대기 중인 메시지도 포함 (버퍼를 먼저 보고 DB 를 봐야 사이에 저장된 메시지를 놓치지 않음)
+     * - 응답의 latestSeq 는 조회 시점에 방에서 부여된 마지막 순번, hasMore 면 newest 메시지 seq 로 이어서 조회
+     */
+    @Transactional(readOnly = true)
+    public MessagePageResponse getMessagesSince(Long chatRoomId, Long userId, long afterSeq, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        long latestSeq = sequencer.current(chatRoomId);
+
+        List<ChatMessageWriteBehind.PendingMessage> pending = writeBehind.pendingSince(chatRoomId, afterSeq);
+        List<Message> rows = messageRepository.findByChatRoomIdAndSeqGreaterThanOrderBySeqAsc(chatRoomId, afterSeq,
+                Limit.of(pageSize + 1));
+
+        // 같은 메시지가 버퍼와 DB 양쪽에 보일 수 있으므로 순번으로 합침
+        TreeMap<Long, MessageResponse> bySeq = new TreeMap<>();
+        convertToMessageResponses(rows).forEach(msg -> bySeq.put(msg.getSeq(), msg));
+        if (!pending.isEmpty()) {
+            ChatRoomParticipantCache.RoomParticipants participants = participantsOf(chatRoomId);
+            pending.forEach(msg -> bySeq.putIfAbsent(msg.seq(), convertToMessageResponse(msg, participants)));
+        }
+
+        List<MessageResponse> page = new ArrayList<>(bySeq.values());
+        boolean hasMore = page.size() > pageSize;
+        if (hasMore) {
+            page = new ArrayList<>(page.subList(0, pageSize));
+        }
+
+        return MessagePageResponse.builder()
+                .messages(page)
+                .oldestId(page.isEmpty() ? null : page.get(0).getId())
+                .newestId(page.isEmpty() ? null : page.get(page.size() - 1).getId())
+                .hasMore(hasMore)
+                .latestSeq(page.isEmpty() ? latestSeq : Math.max(latestSeq, page.get(page.size() - 1).getSeq()))
+                .build();
+    }
+
     // 기타 메서드들
     @Transactional(readOnly = true)
     public List<MessageResponse> getRecentMessages(Long chatRoomId, Long userId, int limit) {
-        return messageRepository.findTop50ByChatRoomIdOrderByCreatedAtDesc(chatRoomId).stream()
-                .sorted((m1, m2) -> m1.getCreatedAt().compareTo(m2.getCreatedAt()))
-                .map(this::convertToMessageResponse)
-                .collect(Collectors.toList());
+        return getMessagePage(chatRoomId, userId, null, null, limit).getMessages();
     }
 
+    // [성능] 메시지마다 is_read 를 바꾸지 않고, 방의 내 읽음 워터마크를 마지막 메시지 id 로 옮김 (UPDATE 1건)
     @Transactional
     public void markMessagesAsRead(Long chatRoomId, Long userId) {
-        List<Message> unreadMessages = messageRepository.findByChatRoomIdAndIsReadFalse(chatRoomId);
-        List<Message> toUpdate = unreadMessages.stream()
-                .filter(m -> !m.getSenderId().equals(userId))
-                .peek(m -> m.setIsRead(true))
-                .collect(Collectors.toList());
-        if (!toUpdate.isEmpty()) {
-            messageRepository.saveAll(toUpdate);
+        ChatRoom chatRoom = chatRoomRepository.findById(chatRoomId).orElse(null);
+        if (chatRoom == null || !isParticipant(chatRoom, userId)) return;
+
+        Long lastReadId = lastReadMessageIdOf(chatRoom, userId);
+        Long lastMessageId = messageRepository.findLastMessageId(chatRoomId);
+        if (lastMessageId == null || lastMessageId <= lastReadId) return;
+
+        long cleared = messageRepository.countUnreadBetween(chatRoomId, userId, lastReadId, lastMessageId);
+        if (chatRoomRepository.advanceLastReadMessageId(chatRoomId, userId, lastMessageId) > 0 && cleared > 0) {
+            badgeCounters.addUnreadMessages(userId, -cleared);
         }
     }
 
     public Long getUnreadCount(Long chatRoomId, Long userId) {
-        return messageRepository.countByChatRoomIdAndIsReadFalseAndSenderIdNot(chatRoomId, userId);
+        return chatRoomRepository.findById(chatRoomId)
+                .map(room -> unreadCountOf(room, userId))
+                .orElse(0L);
+    }
+
+    // 읽음 워터마크 이후 상대방이 보낸 메시지 수
+    private Long unreadCountOf(ChatRoom room, Long userId) {
+        return messageRepository.countUnreadBetween(room.getId(), userId, lastReadMessageIdOf(room, userId), Long.MAX_VALUE);
+    }
+
+    private static boolean isParticipant(ChatRoom room, Long userId) {
+        return room.getUser1Id().equals(userId) || room.getUser2Id().equals(userId);
+    }
+
+    private static Long lastReadMessageIdOf(ChatRoom room, Long userId) {
+        Long lastReadId = room.getUser1Id().equals(userId) ? room.getUser1LastReadMessageId()
+                : room.getUser2Id().equals(userId) ? room.getUser2LastReadMessageId() : null;
+        return lastReadId != null ? lastReadId : 0L;
     }
 
     public Long getTotalUnreadCount(Long userId) {
         try {
-            // [수정] 여기도 @Query 메서드 사용
-            return chatRoomRepository.findMyChatRooms(userId).stream()
-                    .mapToLong(room -> getUnreadCount(room.getId(), userId))
-                    .sum();
+            // [성능] 배지 폴링용: 메모리 카운터에서 바로 반환 (처음 한 번만 쿼리 1번으로 적재)
+            return badgeCounters.unreadMessages(userId);
         } catch (Exception e) {
             return 0L;
         }
     }
 
-    // DTO 변환 로직 (안전 장치 포함)
-    private ChatRoomResponse convertToChatRoomResponse(ChatRoom room, Long currentUserId) {
-        Long otherUserId = room.getUser1Id().equals(currentUserId) ? room.getUser2Id() : room.getUser1Id();
-
-        String otherUserName = "User " + otherUserId;
-        String otherUserAvatar = null;
-        String petName = "반려동물";
+    private static Long otherUserIdOf(ChatRoom room, Long currentUserId) {
+        return room.getUser1Id().equals(currentUserId) ? room.getUser2Id() : room.getUser1Id();
+    }
 
-        try {
-            UserInfoResponse userInfo = userServiceClient.getUserInfo(otherUserId);
-            if (userInfo != null) {
-                otherUserName = userInfo.getUsername();
-                otherUserAvatar = userInfo.getProfileImage();
-                if (userInfo.getPets() != null && !userInfo.getPets().isEmpty()) {
-                    petName = userInfo.getPets().get(0).getPetName();
-                }
-            }
-        } catch (Exception e) {
-            // User Service 장애 시 로그만 남기고 진행
-            log.warn("UserService 연동 실패 (ID: {}).", otherUserId);
-        }
+    // 메시지 목록 변환 ([성능] 보낸 사람 정보는 방별 참여자 캐시에서, 메시지 수와 관계없이 원격 호출 없음)
+    private List<MessageResponse> convertToMessageResponses(List<Message> messages) {
+        Map<Long, ChatRoom> rooms = new LinkedHashMap<>();
+        messages.forEach(msg -> rooms.putIfAbsent(msg.getChatRoom().getId(), msg.getChatRoom()));
+        Map<Long, ChatRoomParticipantCache.RoomParticipants> participants = participantCache.getAll(rooms.values());
+        return messages.stream()
+                .map(msg -> convertToMessageResponse(msg, participants.get(msg.getChatRoom().getId())))
+                .collect(Collectors.toList());
+    }
 
-        String lastMessageAtStr = null;
-        if (room.getLastMessageAt() != null) {
-            lastMessageAtStr = room.getLastMessageAt().toString();
-        }
+    // DTO 변환 로직 (참여자 정보는 ChatRoomParticipantCache 스냅샷, User Service 장애 시 기본값)
+    private ChatRoomResponse convertToChatRoomResponse(ChatRoom room, Long currentUserId,
+                                                       ChatRoomParticipantCache.RoomParticipants participants) {
+        Long otherUserId = otherUserIdOf(room, currentUserId);
+        ChatRoomParticipantCache.Participant other = participants.of(otherUserId);
+        String otherUserName = other.name();
+        String otherUserAvatar = other.avatar();
+        String petName = other.petName();
+
+        // 미리보기와 시각은 같은 값에서 (버퍼 값이 중간에 바뀌어도 짝이 맞게)
+        ChatRoomLastMessageBuffer.PendingLastMessage pending = pendingLastMessageOf(room);
+        String lastMessage = pending != null ? pending.preview() : room.getLastMessage();
+        LocalDateTime lastMessageAt = pending != null ? pending.sentAt() : room.getLastMessageAt();
+        String lastMessageAtStr = lastMessageAt != null ? lastMessageAt.toString() : null;
 
         return ChatRoomResponse.builder()
                 .id(room.getId())
@@ -240,36 +367,65 @@ public class MessageService {
                 .otherUserName(otherUserName)
                 .otherUserAvatar(otherUserAvatar)
                 .petName(petName)
-                .lastMessage(room.getLastMessage())
+                .lastMessage(lastMessage)
                 .lastMessageAt(lastMessageAtStr)
-                .unreadCount(getUnreadCount(room.getId(), currentUserId))
+                .unreadCount(unreadCountOf(room, currentUserId))
                 .build();
     }
 
-    private MessageResponse convertToMessageResponse(Message msg) {
-        String senderName = "User " + msg.getSenderId();
-        String senderAvatar = null;
+    // 마지막 메시지 시각: 아직 DB 에 반영되지 않은 더 최근 값이 있으면 그것을 우선
+    private LocalDateTime lastMessageAtOf(ChatRoom room) {
+        ChatRoomLastMessageBuffer.PendingLastMessage pending = pendingLastMessageOf(room);
+        return pending != null ? pending.sentAt() : room.getLastMessageAt();
+    }
 
-        try {
-            UserInfoResponse userInfo = userServiceClient.getUserInfo(msg.getSenderId());
-            if (userInfo != null) {
-                senderName = userInfo.getUsername();
-                senderAvatar = userInfo.getProfileImage();
-            }
-        } catch (Exception e) {
-            // 무시
-        }
+    private ChatRoomLastMessageBuffer.PendingLastMessage pendingLastMessageOf(ChatRoom room) {
+        ChatRoomLastMessageBuffer.PendingLastMessage pending = lastMessageBuffer.pendingOf(room.getId());
+        if (pending == null) return null;
+        return room.getLastMessageId() == null || pending.messageId() > room.getLastMessageId() ? pending : null;
+    }
+
+    // 받는 사람(보낸 사람의 상대방)의 읽음 워터마크 이하면 읽음
+    private static boolean isReadByRecipient(Message msg) {
+        ChatRoom room = msg.getChatRoom();
+        if (room == null || msg.getId() == null) return false;
+        return msg.getId() <= lastReadMessageIdOf(room, otherUserIdOf(room, msg.getSenderId()));
+    }
+
+    private MessageResponse convertToMessageResponse(Message msg, ChatRoomParticipantCache.RoomParticipants participants) {
+        ChatRoomParticipantCache.Participant sender = participants.of(msg.getSenderId());
+        String senderName = sender.name();
+        String senderAvatar = sender.avatar();
 
         return MessageResponse.builder()
                 .id(msg.getId())
                 .chatRoomId(msg.getChatRoom().getId())
+                .seq(msg.getSeq())
                 .senderId(msg.getSenderId())
                 .senderName(senderName)
                 .senderAvatar(senderAvatar)
                 .content(msg.getContent())
                 .messageType(msg.getMessageType().name())
-                .isRead(msg.getIsRead())
+                .isRead(isReadByRecipient(msg))
                 .createdAt(msg.getCreatedAt() != null ? msg.getCreatedAt().toString() : null)
                 .build();
     }
+
+    // 저장 대기 중인 메시지 (아직 아무도 읽지 않음)
+    private MessageResponse convertToMessageResponse(ChatMessageWriteBehind.PendingMessage msg,
+                                                     ChatRoomParticipantCache.RoomParticipants participants) {
+        ChatRoomParticipantCache.Participant sender = participants.of(msg.senderId());
+        return MessageResponse.builder()
+                .id(msg.id())
+                .chatRoomId(msg.chatRoomId())
+                .seq(msg.seq())
+                .senderId(msg.senderId())
+                .senderName(sender.name())
+                .senderAvatar(sender.avatar())
+                .content(msg.content())
+                .messageType(msg.messageType().name())
+                .isRead(false)
+                .createdAt(msg.createdAt().toString())
+                .build();
+    }
 }
\ No newline at end of file
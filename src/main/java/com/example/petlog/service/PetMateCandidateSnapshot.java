@@ -0,0 +1,248 @@
+package com.example.petlog.service;
+
+import com.example.petlog.entity.PetMate;
+import com.example.petlog.repository.PetMateRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 후보 조회용 컬럼형 인메모리 스냅샷
+ * - 활성 PetMate 를 primitive 컬럼(double[] 위경도, byte[] 활동량, int[] 성별/견종 사전 코드)으로 보관
+ * - 성별/견종/활동량/반경 조건을 엔티티 로딩 없이 배열 루프 한 번으로 평가
+ * - 서버 기동 시 한 번 적재하고, 이후 프로필 변경 시 해당 슬롯만 갱신
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PetMateCandidateSnapshot {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    // 사전 코드: 값 없음 / 사전에 없는 필터 값(어떤 행과도 일치하지 않음) / 필터 조건 없음
+    private static final int NULL_CODE = -1;
+    private static final int UNKNOWN_CODE = -2;
+    private static final int ANY_CODE = Integer.MIN_VALUE;
+
+    private final PetMateRepository petMateRepository;
+    private final PetMateScoringEngine scoringEngine;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // 아래 필드는 모두 lock 으로 보호
+    private final Map<Long, Integer> slotByUserId = new HashMap<>();
+    private final Map<String, Integer> genderCodes = new HashMap<>();
+    private final Map<String, Integer> breedCodes = new HashMap<>();
+
+    private long[] userIds = new long[INITIAL_CAPACITY];
+    private double[] latitudes = new double[INITIAL_CAPACITY];
+    private double[] longitudes = new double[INITIAL_CAPACITY];
+    private byte[] activityLevels = new byte[INITIAL_CAPACITY];
+    private int[] genders = new int[INITIAL_CAPACITY];
+    private int[] breeds = new int[INITIAL_CAPACITY];
+    private boolean[] active = new boolean[INITIAL_CAPACITY];
+    private int size = 0;
+
+    private volatile boolean ready = false;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        try {
+            List<PetMateRepository.SnapshotView> rows = petMateRepository.findActiveSnapshotRows();
+            for (PetMateRepository.SnapshotView row : rows) {
+                put(row.getUserId(), row.getLatitude(), row.getLongitude(), row.getActivityLevel(),
+                        row.getUserGender(), row.getPetBreed(), true);
+                scoringEngine.update(row.getUserId(), row.getActivityLevel(), row.getPetBreed(),
+                        row.getPetAge(), row.getLastActiveAt());
+            }
+            ready = true;
+            log.info("PetMate 후보 스냅샷 로딩 완료: {}건", rows.size());
+        } catch (Exception e) {
+            log.error("PetMate 후보 스냅샷 로딩 실패. DB 조회로 대체합니다.", e);
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * 프로필 변경 반영
+     */
+    public void upsert(PetMate petMate) {
+        if (petMate == null || petMate.getUserId() == null) return;
+        put(petMate.getUserId(), petMate.getLatitude(), petMate.getLongitude(), petMate.getActivityLevel(),
+                petMate.getUserGender(), petMate.getPetBreed(), Boolean.TRUE.equals(petMate.getIsActive()));
+    }
+
+    /**
+     * 위치만 갱신 (스냅샷에 없는 사용자는 무시)
+     */
+    public void updateLocation(Long userId, Double latitude, Double longitude) {
+        if (userId == null) return;
+        lock.writeLock().lock();
+        try {
+            Integer slot = slotByUserId.get(userId);
+            if (slot == null) return;
+            latitudes[slot] = latitude != null ? latitude : Double.NaN;
+            longitudes[slot] = longitude != null ? longitude : Double.NaN;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 조건에 맞는 후보 조회
+     *
+     * @param candidateUserIds 검사할 userId 목록 (null 이면 전체 스캔)
+     * @return 통과한 userId 와 거리 (위치 조건이 있으면 거리순, 없으면 입력/슬롯 순)
+     */
+    public Result filter(long[] candidateUserIds, Criteria criteria) {
+        lock.readLock().lock();
+        try {
+            int genderCode = codeOf(genderCodes, criteria.userGender());
+            int breedCode = codeOf(breedCodes, criteria.petBreed());
+            int minActivity = criteria.minActivityLevel() != null ? criteria.minActivityLevel() : Integer.MIN_VALUE;
+            int maxActivity = criteria.maxActivityLevel() != null ? criteria.maxActivityLevel() : Integer.MAX_VALUE;
+            long excludeUserId = criteria.excludeUserId() != null ? criteria.excludeUserId() : Long.MIN_VALUE;
+
+            boolean hasLocation = criteria.latitude() != null && criteria.longitude() != null
+                    && criteria.radiusKm() != null;
+            double lat = hasLocation ? criteria.latitude() : 0;
+            double lng = hasLocation ? criteria.longitude() : 0;
+            double radiusKm = hasLocation ? criteria.radiusKm() : 0;
+            double latDelta = Math.toDegrees(radiusKm / 6371.0);
+            double lngDelta = Math.min(latDelta / Math.max(Math.cos(Math.toRadians(lat)), 0.01), 180.0);
+
+            int n = candidateUserIds != null ? candidateUserIds.length : size;
+            long[] outIds = new long[n];
+            double[] outDistances = new double[n];
+            int count = 0;
+
+            for (int i = 0; i < n; i++) {
+                int slot;
+                if (candidateUserIds != null) {
+                    Integer found = slotByUserId.get(candidateUserIds[i]);
+                    if (found == null) continue;
+                    slot = found;
+                } else {
+                    slot = i;
+                }
+
+                if (!active[slot] || userIds[slot] == excludeUserId) continue;
+                if (genderCode != ANY_CODE && genders[slot] != genderCode) continue;
+                if (breedCode != ANY_CODE && breeds[slot] != breedCode) continue;
+                int activity = activityLevels[slot];
+                if (activity < minActivity || activity > maxActivity) continue;
+
+                double distance = Double.NaN;
+                if (hasLocation) {
+                    double pLat = latitudes[slot];
+                    double pLng = longitudes[slot];
+                    // NaN(위치 없음)은 비교 결과가 false 이므로 여기서 함께 걸러짐
+                    if (!(Math.abs(pLat - lat) <= latDelta && Math.abs(pLng - lng) <= lngDelta)) continue;
+                    distance = PetMateGeoIndex.distanceKm(lat, lng, pLat, pLng);
+                    if (distance >= radiusKm) continue;
+                }
+
+                outIds[count] = userIds[slot];
+                outDistances[count] = distance;
+                count++;
+            }
+
+            Result result = new Result(Arrays.copyOf(outIds, count), Arrays.copyOf(outDistances, count));
+            return hasLocation ? result.sortedByDistance() : result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void put(Long userId, Double latitude, Double longitude, Integer activityLevel,
+                     String userGender, String petBreed, boolean isActive) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slotByUserId.get(userId);
+            if (slot == null) {
+                ensureCapacity(size + 1);
+                slot = size++;
+                slotByUserId.put(userId, slot);
+            }
+
+            userIds[slot] = userId;
+            latitudes[slot] = latitude != null ? latitude : Double.NaN;
+            longitudes[slot] = longitude != null ? longitude : Double.NaN;
+            // 활동량 미입력은 0 으로 간주
+            activityLevels[slot] = (byte) (activityLevel != null ? activityLevel : 0);
+            genders[slot] = intern(genderCodes, userGender);
+            breeds[slot] = intern(breedCodes, petBreed);
+            active[slot] = isActive;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= userIds.length) return;
+        int capacity = Math.max(required, userIds.length * 2);
+        userIds = Arrays.copyOf(userIds, capacity);
+        latitudes = Arrays.copyOf(latitudes, capacity);
+        longitudes = Arrays.copyOf(longitudes, capacity);
+        activityLevels = Arrays.copyOf(activityLevels, capacity);
+        genders = Arrays.copyOf(genders, capacity);
+        breeds = Arrays.copyOf(breeds, capacity);
+        active = Arrays.copyOf(active, capacity);
+    }
+
+    private static int intern(Map<String, Integer> dictionary, String value) {
+        if (value == null) return NULL_CODE;
+        return dictionary.computeIfAbsent(value, v -> dictionary.size());
+    }
+
+    private static int codeOf(Map<String, Integer> dictionary, String value) {
+        if (value == null) return ANY_CODE;
+        return dictionary.getOrDefault(value, UNKNOWN_CODE);
+    }
+
+    /**
+     * 필터 조건 (null 인 항목은 조건에서 제외, userGender 는 DB 저장값 기준)
+     */
+    public record Criteria(Long excludeUserId, String userGender, String petBreed,
+                           Integer minActivityLevel, Integer maxActivityLevel,
+                           Double latitude, Double longitude, Double radiusKm) {
+    }
+
+    /**
+     * 필터 결과 (위치 조건이 없으면 distancesKm 는 NaN)
+     */
+    public record Result(long[] userIds, double[] distancesKm) {
+
+        public int size() {
+            return userIds.length;
+        }
+
+        private Result sortedByDistance() {
+            Integer[] order = new Integer[userIds.length];
+            for (int i = 0; i < order.length; i++) order[i] = i;
+            Arrays.sort(order, (a, b) -> {
+                int cmp = Double.compare(distancesKm[a], distancesKm[b]);
+                return cmp != 0 ? cmp : Long.compare(userIds[a], userIds[b]);
+            });
+
+            long[] ids = new long[order.length];
+            double[] distances = new double[order.length];
+            for (int i = 0; i < order.length; i++) {
+                ids[i] = userIds[order[i]];
+                distances[i] = distancesKm[order[i]];
+            }
+            return new Result(ids, distances);
+        }
+    }
+}
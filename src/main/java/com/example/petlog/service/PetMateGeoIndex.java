@@ -0,0 +1,335 @@
+package com.example.petlog.service;
+
+import com.example.petlog.repository.PetMateRepository;
+import com.example.petlog.repository.PetMateSearchCondition;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongPredicate;
+
+/**
+ * 활성 PetMate 위치를 격자(Cell) 단위로 보관하는 인메모리 공간 인덱스
+ * - 위도/경도를 고정 크기 셀로 나누고, 셀 -> userId 집합으로 관리
+ * - 반경 검색 시 반경을 덮는 셀만 조회하므로 비용이 "주변 사용자 수"에 비례
+ * - 경도 셀 번호는 한 바퀴(360도) 단위로 이어지므로 ±180도 경선 부근 반경도 양쪽 셀을 함께 조회
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PetMateGeoIndex {
+
+    private static final double EARTH_RADIUS_KM = 6371.0;
+
+    // 셀 크기 (위도 0.01도 ≒ 1.1km)
+    private static final double CELL_SIZE_DEG = 0.01;
+
+    // 경도 한 바퀴의 셀 수 (경도 셀 번호는 0 ~ LNG_CELLS - 1 로 정규화)
+    private static final long LNG_CELLS = Math.round(360.0 / CELL_SIZE_DEG);
+
+    // 한 번의 반경 검색이 덮을 수 있는 최대 셀 수 (넘으면 인덱스 대신 DB/스냅샷 검색을 사용)
+    static final long MAX_COVERING_CELLS = 40_000;
+
+    // 페이지 조회 순서: (거리 키, userId) - DB 키셋과 같은 순서
+    private static final Comparator<Hit> PAGE_ORDER =
+            Comparator.comparingLong(Hit::distanceKey).thenComparing(Hit::userId);
+
+    private static final long MIN_LAT_IDX = cellIndex(-90.0);
+    private static final long MAX_LAT_IDX = cellIndex(90.0);
+
+    private final PetMateRepository petMateRepository;
+
+    private final Map<Long, Set<Long>> cells = new ConcurrentHashMap<>();
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+
+    // 셀 버전: 셀에 사용자가 들어오거나 나갈 때, 셀 안의 프로필 정보가 바뀔 때 갱신 (미리 계산한 덱의 유효성 확인용)
+    // 같은 셀 안에서 위치만 조금씩 바뀌는 것(GPS 흔들림)으로는 갱신하지 않음
+    // - 값은 전역 단조 증가 카운터에서 받음 -> 비었다가 다시 생긴 셀도 예전 값을 다시 쓰지 않음
+    // - 사용자가 있는 셀만 보관하고 빈 셀은 지움 (버전 0 = 빈 셀, 비어 있을 때 계산한 덱만 그대로 유효)
+    // - cells 의 같은 키 compute 안에서만 바꿔서 구성원 변경과 버전 변경이 어긋나지 않게 함
+    private final Map<Long, Long> cellVersions = new ConcurrentHashMap<>();
+    private final AtomicLong versionClock = new AtomicLong();
+
+    private volatile boolean ready = false;
+
+    /**
+     * 서버 기동 시 DB의 활성 프로필 위치로 인덱스를 채움
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        try {
+            List<PetMateRepository.LocationView> locations = petMateRepository.findActiveLocations();
+            for (PetMateRepository.LocationView view : locations) {
+                upsert(view.getUserId(), view.getLatitude(), view.getLongitude());
+            }
+            ready = true;
+            log.info("PetMate 공간 인덱스 로딩 완료: {}건", entries.size());
+        } catch (Exception e) {
+            log.error("PetMate 공간 인덱스 로딩 실패. DB 반경 검색으로 대체합니다.", e);
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * 사용자 위치 등록/갱신
+     */
+    public void upsert(Long userId, Double latitude, Double longitude) {
+        if (userId == null) return;
+        if (latitude == null || longitude == null) {
+            remove(userId);
+            return;
+        }
+
+        long cellKey = cellKey(latitude, longitude);
+        Entry previous = entries.put(userId, new Entry(userId, latitude, longitude, cellKey));
+
+        if (previous != null && previous.cellKey() == cellKey) return;
+
+        if (previous != null) {
+            removeFromCell(previous.cellKey(), userId);
+        }
+        addToCell(cellKey, userId);
+    }
+
+    /**
+     * 위치 외 프로필 정보(견종, 활동량 등)가 바뀐 사용자의 셀 버전 증가
+     */
+    public void markChanged(Long userId) {
+        Entry entry = userId != null ? entries.get(userId) : null;
+        if (entry != null) {
+            bumpVersion(entry.cellKey());
+        }
+    }
+
+    /**
+     * 인덱스에서 사용자 제거 (비활성화 등)
+     */
+    public void remove(Long userId) {
+        if (userId == null) return;
+        Entry previous = entries.remove(userId);
+        if (previous != null) {
+            removeFromCell(previous.cellKey(), userId);
+        }
+    }
+
+    /**
+     * 반경을 덮는 셀 수가 MAX_COVERING_CELLS 이하인지 (인덱스 검색 가능 여부)
+     */
+    public static boolean canCover(double latitude, double longitude, double radiusKm) {
+        return CellRange.of(latitude, longitude, radiusKm).count() <= MAX_COVERING_CELLS;
+    }
+
+    /**
+     * 반경을 덮는 셀 키 목록
+     *
+     * @throws IllegalArgumentException 덮는 셀 수가 MAX_COVERING_CELLS 를 넘을 때 (호출 전 canCover 로 확인)
+     */
+    public long[] cellsCovering(double latitude, double longitude, double radiusKm) {
+        CellRange range = CellRange.of(latitude, longitude, radiusKm);
+        long count = range.count();
+        if (count > MAX_COVERING_CELLS) {
+            throw new IllegalArgumentException("검색 반경이 너무 넓습니다: " + radiusKm + "km");
+        }
+
+        long[] keys = new long[(int) count];
+        int i = 0;
+        for (long latIdx = range.minLatIdx(); latIdx <= range.maxLatIdx(); latIdx++) {
+            for (long lngIdx = range.minLngIdx(); lngIdx <= range.maxLngIdx(); lngIdx++) {
+                keys[i++] = packKey(latIdx, Math.floorMod(lngIdx, LNG_CELLS));
+            }
+        }
+        return keys;
+    }
+
+    public long versionOf(long cellKey) {
+        return cellVersions.getOrDefault(cellKey, 0L);
+    }
+
+    // 사용자가 있는 셀만 버전 갱신 (빈 셀은 0 그대로)
+    private void bumpVersion(long cellKey) {
+        cells.computeIfPresent(cellKey, (k, members) -> {
+            cellVersions.put(k, versionClock.incrementAndGet());
+            return members;
+        });
+    }
+
+    /**
+     * 반경 내 사용자 검색 (거리 오름차순, 동일 거리면 userId 오름차순)
+     */
+    public List<Hit> findWithin(double latitude, double longitude, double radiusKm, Long excludeUserId) {
+        List<Hit> hits = new ArrayList<>();
+        for (long cellKey : cellsCovering(latitude, longitude, radiusKm)) {
+            Set<Long> members = cells.get(cellKey);
+            if (members == null) continue;
+
+            for (Long userId : members) {
+                if (userId.equals(excludeUserId)) continue;
+                Entry entry = entries.get(userId);
+                // 동시 갱신 중 이전 셀에 남은 흔적은 무시 (중복 방지)
+                if (entry == null || entry.cellKey() != cellKey) continue;
+
+                double distance = distanceKm(latitude, longitude, entry.latitude(), entry.longitude());
+                if (distance < radiusKm) {
+                    hits.add(new Hit(userId, distance));
+                }
+            }
+        }
+
+        hits.sort(Comparator.comparingDouble(Hit::distanceKm).thenComparing(Hit::userId));
+        return hits;
+    }
+
+    /**
+     * 반경 내에서 (거리 키, userId) 순서상 커서 이후인 사용자 중 앞쪽 최대 limit 명 (페이지 조회용)
+     * 반경 전체를 모아 정렬하지 않고 크기 limit 의 힙으로 선정
+     *
+     * @param skip  제외할 userId 판별자 (상호작용한 상대 등)
+     * @param after 이 위치 이후만 (null 이면 처음부터)
+     */
+    List<Hit> findNearestAfter(double latitude, double longitude, double radiusKm, Long excludeUserId,
+                               LongPredicate skip, CandidateCursor after, int limit) {
+        if (limit <= 0) return new ArrayList<>();
+        // 가장 뒤쪽 후보가 맨 앞에 오는 힙 (더 앞선 후보가 오면 교체)
+        PriorityQueue<Hit> top = new PriorityQueue<>(limit, PAGE_ORDER.reversed());
+        for (long cellKey : cellsCovering(latitude, longitude, radiusKm)) {
+            Set<Long> members = cells.get(cellKey);
+            if (members == null) continue;
+
+            for (Long userId : members) {
+                if (userId.equals(excludeUserId) || skip.test(userId)) continue;
+                Entry entry = entries.get(userId);
+                if (entry == null || entry.cellKey() != cellKey) continue;
+
+                double distance = distanceKm(latitude, longitude, entry.latitude(), entry.longitude());
+                if (distance >= radiusKm) continue;
+                Hit hit = new Hit(userId, distance);
+                if (after != null && !after.precedes(hit.distanceKey(), userId)) continue;
+
+                if (top.size() < limit) {
+                    top.add(hit);
+                } else if (PAGE_ORDER.compare(hit, top.peek()) < 0) {
+                    top.poll();
+                    top.add(hit);
+                }
+            }
+        }
+
+        List<Hit> hits = new ArrayList<>(top);
+        hits.sort(PAGE_ORDER);
+        return hits;
+    }
+
+    /**
+     * 인덱스에 등록된 사용자 현재 위치 (없으면 null)
+     */
+    public Position locate(Long userId) {
+        Entry entry = userId != null ? entries.get(userId) : null;
+        return entry != null ? new Position(entry.latitude(), entry.longitude()) : null;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private void addToCell(long cellKey, Long userId) {
+        cells.compute(cellKey, (k, members) -> {
+            Set<Long> updated = members != null ? members : ConcurrentHashMap.newKeySet();
+            updated.add(userId);
+            cellVersions.put(k, versionClock.incrementAndGet());
+            return updated;
+        });
+    }
+
+    private void removeFromCell(long cellKey, Long userId) {
+        cells.computeIfPresent(cellKey, (k, members) -> {
+            if (!members.remove(userId)) return members;
+            if (members.isEmpty()) {
+                cellVersions.remove(k);
+                return null;
+            }
+            cellVersions.put(k, versionClock.incrementAndGet());
+            return members;
+        });
+    }
+
+    public static long cellKey(double latitude, double longitude) {
+        return packKey(cellIndex(latitude), Math.floorMod(cellIndex(longitude), LNG_CELLS));
+    }
+
+    private static long cellIndex(double degree) {
+        return (long) Math.floor(degree / CELL_SIZE_DEG);
+    }
+
+    private static long packKey(long latIdx, long lngIdx) {
+        return (latIdx << 32) | (lngIdx & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Haversine 거리 (km)
+     */
+    static double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+        double latDistance = Math.toRadians(lat2 - lat1);
+        double lonDistance = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(latDistance / 2) * Math.sin(latDistance / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(lonDistance / 2) * Math.sin(lonDistance / 2);
+        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+        return EARTH_RADIUS_KM * c;
+    }
+
+    /**
+     * 반경을 덮는 셀 인덱스 범위 (위도는 ±90 안으로 자름)
+     * 경도 번호는 정규화 전 값 (±180 을 넘을 수 있음, 조회 시 floorMod), 한 바퀴를 넘으면 한 바퀴로 자름
+     */
+    private record CellRange(long minLatIdx, long maxLatIdx, long minLngIdx, long maxLngIdx) {
+
+        static CellRange of(double latitude, double longitude, double radiusKm) {
+            double latDelta = Math.toDegrees(Math.max(radiusKm, 0) / EARTH_RADIUS_KM);
+            double cosLat = Math.max(Math.cos(Math.toRadians(latitude)), 0.01);
+            double lngDelta = Math.min(latDelta / cosLat, 180.0);
+
+            long minLngIdx = cellIndex(longitude - lngDelta);
+            long maxLngIdx = cellIndex(longitude + lngDelta);
+            if (maxLngIdx - minLngIdx + 1 > LNG_CELLS) {
+                minLngIdx = 0;
+                maxLngIdx = LNG_CELLS - 1;
+            }
+            return new CellRange(
+                    Math.max(cellIndex(latitude - latDelta), MIN_LAT_IDX),
+                    Math.min(cellIndex(latitude + latDelta), MAX_LAT_IDX),
+                    minLngIdx,
+                    maxLngIdx);
+        }
+
+        long count() {
+            if (maxLatIdx < minLatIdx || maxLngIdx < minLngIdx) return 0;
+            return (maxLatIdx - minLatIdx + 1) * (maxLngIdx - minLngIdx + 1);
+        }
+    }
+
+    private record Entry(Long userId, double latitude, double longitude, long cellKey) {
+    }
+
+    public record Hit(Long userId, double distanceKm) {
+
+        long distanceKey() {
+            return PetMateSearchCondition.distanceKeyOf(distanceKm);
+        }
+    }
+
+    public record Position(double latitude, double longitude) {
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.petlog.service;
+
+import com.example.petlog.repository.PetMateMatchRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.function.Consumer;
+import java.util.function.LongPredicate;
+
+/**
+ * 사용자별 "이미 상호작용한 상대" 비트맵 (Roaring)
+ * - 내가 좋아요한 상대, 매칭된 상대, 내가 거절한 상대를 보관
+ * - 최초 조회 시 pet_mate_matches 에서 적재하고, 이후 like/unlike/respond/unfriend 에서 갱신
+ *   (트랜잭션 안에서 호출되면 커밋 후 반영, 롤백되면 반영하지 않음)
+ * - 후보 생성 시 O(1) 포함 여부 확인으로 제외
+ * - 크기 제한 + 유휴 만료 캐시라 오래 조회하지 않은 사용자 비트맵은 내림 (다음 조회 때 다시 적재)
+ */
+@Component
+public class PetMateInteractionIndex {
+
+    private final PetMateMatchRepository petMateMatchRepository;
+    private final Cache<Long, Roaring64Bitmap> bitmaps;
+
+    public PetMateInteractionIndex(PetMateMatchRepository petMateMatchRepository,
+                                   @Value("${petmate.interaction.maximum-size:50000}") long maximumSize,
+                                   @Value("${petmate.interaction.idle-minutes:30}") long idleMinutes) {
+        this.petMateMatchRepository = petMateMatchRepository;
+        this.bitmaps = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterAccess(Duration.ofMinutes(idleMinutes))
+                .build();
+    }
+
+    /**
+     * 후보 제외용 판별자 반환 (호출 시점 스냅샷이므로 락 없이 사용 가능)
+     */
+    public LongPredicate excluder(Long userId) {
+        Roaring64Bitmap bitmap = load(userId);
+        Roaring64Bitmap snapshot;
+        synchronized (bitmap) {
+            snapshot = bitmap.clone();
+        }
+        return snapshot::contains;
+    }
+
+    public void add(Long userId, Long otherUserId) {
+        afterCommit(() -> update(userId, bitmap -> bitmap.addLong(otherUserId)));
+    }
+
+    public void remove(Long userId, Long otherUserId) {
+        afterCommit(() -> update(userId, bitmap -> bitmap.removeLong(otherUserId)));
+    }
+
+    /**
+     * 적재된 비트맵에만 반영 (아직 적재되지 않은 사용자는 다음 조회 때 DB 에서 읽음)
+     * compute 는 같은 키의 적재(get)가 끝날 때까지 기다리므로, 적재 도중 커밋된 변경도 적재 결과 위에 반영됨
+     * (조회 시점에 이미 커밋돼 있었다면 같은 값을 한 번 더 쓰는 것이라 결과가 같음)
+     */
+    private void update(Long userId, Consumer<Roaring64Bitmap> change) {
+        bitmaps.asMap().compute(userId, (id, bitmap) -> {
+            if (bitmap == null) return null;
+            synchronized (bitmap) {
+                change.accept(bitmap);
+            }
+            return bitmap;
+        });
+    }
+
+    private Roaring64Bitmap load(Long userId) {
+        return bitmaps.get(userId, id -> {
+            Roaring64Bitmap bitmap = new Roaring64Bitmap();
+            for (Long otherUserId : petMateMatchRepository.findInteractedUserIds(id)) {
+                bitmap.addLong(otherUserId);
+            }
+            bitmap.runOptimize();
+            return bitmap;
+        });
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
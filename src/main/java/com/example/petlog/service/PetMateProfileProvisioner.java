@@ -0,0 +1,132 @@
+package com.example.petlog.service;
+
+import com.example.petlog.client.UserServiceClient;
+import com.example.petlog.dto.response.UserInfoResponse;
+import com.example.petlog.entity.PetMate;
+import com.example.petlog.repository.PetMateRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * PetMate 프로필 자동 생성 (single-flight)
+ * - 같은 userId 로 동시에 들어온 요청은 User Service 호출 1번을 함께 기다림
+ * - User Service 호출은 DB 트랜잭션 밖에서 수행 (원격 호출 동안 커넥션을 잡지 않도록)
+ * - 저장은 user_id 유니크 제약에 맡기고, 제약 위반 시 행이 실제로 있을 때만(다른 인스턴스가 먼저 만듦) 통과
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PetMateProfileProvisioner {
+
+    private final PetMateRepository petMateRepository;
+    private final UserServiceClient userServiceClient;
+    private final KnownProfileRegistry knownProfiles;
+    private final PetMateCandidateSnapshot candidateSnapshot;
+
+    private final Map<Long, CompletableFuture<Void>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * 프로필이 없으면 User Service 정보로 생성 (트랜잭션 밖에서 호출해야 함)
+     */
+    public void ensureExists(Long userId) {
+        if (userId == null || knownProfiles.exists(userId)) return;
+
+        CompletableFuture<Void> mine = new CompletableFuture<>();
+        CompletableFuture<Void> leader = inFlight.putIfAbsent(userId, mine);
+        if (leader != null) {
+            // 먼저 시작한 요청의 결과를 기다림
+            try {
+                leader.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+            return;
+        }
+
+        try {
+            provision(userId);
+            mine.complete(null);
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(userId, mine);
+        }
+    }
+
+    private void provision(Long userId) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            log.warn("트랜잭션 안에서 프로필 자동 생성 호출됨 (UserId: {}). 원격 호출 동안 커넥션을 점유합니다.", userId);
+        }
+
+        log.info("PetMate 프로필 없음. 자동 생성 시도 -> UserId: {}", userId);
+        PetMate newProfile = fetchProfile(userId);
+
+        try {
+            petMateRepository.save(newProfile);
+            candidateSnapshot.upsert(newProfile);
+        } catch (DataIntegrityViolationException e) {
+            // 다른 요청/인스턴스가 먼저 생성했는지 (uk_pet_mates_user_id) 행을 다시 확인
+            // 행이 없으면 다른 제약 위반(컬럼 길이 등)이므로 그대로 실패 처리
+            if (!petMateRepository.existsByUserId(userId)) {
+                log.error("PetMate 프로필 자동 생성 실패 -> UserId: {}", userId, e);
+                throw e;
+            }
+            log.info("PetMate 프로필이 이미 생성됨 -> UserId: {}", userId);
+        }
+        knownProfiles.add(userId);
+    }
+
+    private PetMate fetchProfile(Long userId) {
+        PetMate newProfile = new PetMate();
+        newProfile.setUserId(userId);
+        newProfile.setIsActive(true);
+        newProfile.setIsOnline(true);
+
+        try {
+            // User Service 호출
+            UserInfoResponse userInfo = userServiceClient.getUserInfo(userId);
+            if (userInfo != null) {
+                newProfile.setUserName(userInfo.getUsername());
+                newProfile.setUserAvatar(userInfo.getProfileImage());
+                newProfile.setUserGender(mapGender(userInfo.getGenderType()));
+
+                if (userInfo.getPets() != null && !userInfo.getPets().isEmpty()) {
+                    var firstPet = userInfo.getPets().get(0);
+                    newProfile.setPetName(firstPet.getPetName());
+                    newProfile.setPetBreed(firstPet.getBreed());
+                    newProfile.setPetPhoto(firstPet.getProfileImage());
+                    newProfile.setPetAge(firstPet.getAge());
+                    newProfile.setPetGender(mapGender(firstPet.getGenderType()));
+                } else {
+                    newProfile.setPetName("반려동물");
+                    newProfile.setPetBreed("믹스견");
+                }
+            }
+        } catch (Exception e) {
+            log.warn("User Service 연동 실패 (ID: {}). 기본값 생성.", userId);
+            newProfile.setUserName("User " + userId);
+            newProfile.setPetName("반려동물");
+            newProfile.setPetBreed("알수없음");
+            newProfile.setUserGender("미설정");
+        }
+        return newProfile;
+    }
+
+    private String mapGender(String genderType) {
+        if (genderType == null) return "미설정";
+        return switch (genderType.toUpperCase()) {
+            case "MALE", "M" -> "남성";
+            case "FEMALE", "F" -> "여성";
+            default -> "미설정";
+        };
+    }
+}
@@ -0,0 +1,235 @@
+package com.example.petlog.service;
+
+import com.example.petlog.entity.PetMate;
+import com.example.petlog.repository.PetMateRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 궁합 점수 계산 엔진 (0 ~ 100, 같은 입력이면 항상 같은 점수)
+ * - 프로필이 바뀔 때마다 특징 벡터(double[])를 미리 계산해 두고
+ * - 후보 목록 점수는 primitive 배열 루프 한 번으로 계산
+ *
+ * 점수 구성: 활동량 차이 30% + 견종 크기 궁합 20% + 반려동물 나이 차이 15%
+ *          + 거리 감쇠 20% + 최근 접속 15%
+ */
+@Component
+@RequiredArgsConstructor
+public class PetMateScoringEngine {
+
+    // 특징 벡터 레이아웃
+    static final int F_ACTIVITY = 0;
+    static final int F_SIZE = 1;
+    static final int F_PET_AGE = 2;
+    static final int F_LAST_ACTIVE = 3;
+    static final int DIM = 4;
+
+    private static final double W_ACTIVITY = 0.30;
+    private static final double W_SIZE = 0.20;
+    private static final double W_AGE = 0.15;
+    private static final double W_DISTANCE = 0.20;
+    private static final double W_RECENCY = 0.15;
+
+    private static final double MAX_ACTIVITY_GAP = 5.0;
+    private static final double MAX_AGE_GAP = 10.0;
+    private static final double DISTANCE_DECAY_KM = 3.0;
+    private static final double RECENCY_DECAY_HOURS = 72.0;
+
+    // 값이 없는 항목은 중간값(0.5)으로 처리
+    private static final double UNKNOWN_SIMILARITY = 0.5;
+
+    private static final Map<String, Integer> BREED_SIZE = Map.ofEntries(
+            // 소형
+            Map.entry("말티즈", 0), Map.entry("푸들", 0), Map.entry("토이푸들", 0), Map.entry("포메라니안", 0),
+            Map.entry("치와와", 0), Map.entry("요크셔테리어", 0), Map.entry("시츄", 0), Map.entry("비숑프리제", 0),
+            Map.entry("닥스훈트", 0), Map.entry("파피용", 0), Map.entry("미니어처핀셔", 0),
+            // 중형
+            Map.entry("웰시코기", 1), Map.entry("비글", 1), Map.entry("시바견", 1), Map.entry("보더콜리", 1),
+            Map.entry("진돗개", 1), Map.entry("슈나우저", 1), Map.entry("코카스파니엘", 1), Map.entry("프렌치불독", 1),
+            // 대형
+            Map.entry("골든리트리버", 2), Map.entry("래브라도리트리버", 2), Map.entry("시베리안허스키", 2),
+            Map.entry("사모예드", 2), Map.entry("저먼셰퍼드", 2), Map.entry("말라뮤트", 2), Map.entry("도베르만", 2)
+    );
+
+    private final PetMateRepository petMateRepository;
+
+    private final Map<Long, double[]> features = new ConcurrentHashMap<>();
+
+    /**
+     * 프로필 변경 시 특징 벡터 갱신
+     */
+    public void update(PetMate petMate) {
+        if (petMate == null || petMate.getUserId() == null) return;
+        features.put(petMate.getUserId(), toFeatures(petMate));
+    }
+
+    public void update(Long userId, Integer activityLevel, String petBreed, Integer petAge, LocalDateTime lastActiveAt) {
+        if (userId == null) return;
+        features.put(userId, toFeatures(activityLevel, petBreed, petAge, lastActiveAt));
+    }
+
+    /**
+     * 최근 접속 시각만 갱신 (특징 벡터가 없는 사용자는 다음 조회 때 DB 에서 읽음)
+     */
+    public void updateLastActive(Long userId, LocalDateTime lastActiveAt) {
+        if (userId == null) return;
+        features.computeIfPresent(userId, (id, f) -> {
+            double[] copy = f.clone();
+            copy[F_LAST_ACTIVE] = toEpochSecond(lastActiveAt);
+            return copy;
+        });
+    }
+
+    /**
+     * 마지막 접속 시각 (epoch 초, 모르면 NaN)
+     */
+    public double lastActiveEpochSecond(Long userId) {
+        double[] f = userId != null ? features.get(userId) : null;
+        return f != null ? f[F_LAST_ACTIVE] : Double.NaN;
+    }
+
+    /**
+     * 요청자 기준 후보 점수 일괄 계산
+     *
+     * @param distancesKm 후보별 거리 (모르면 NaN)
+     */
+    public int[] score(Long viewerUserId, List<PetMate> candidates, double[] distancesKm) {
+        int n = candidates.size();
+        double[] packed = new double[n * DIM];
+        for (int i = 0; i < n; i++) {
+            System.arraycopy(featuresOf(candidates.get(i)), 0, packed, i * DIM, DIM);
+        }
+
+        int[] out = new int[n];
+        scoreBatch(viewerFeatures(viewerUserId), packed, distancesKm, nowEpochSecond(), out);
+        return out;
+    }
+
+    /**
+     * 엔티티 없이 userId 만으로 점수 계산 (특징 벡터가 없는 후보는 중간값 처리)
+     */
+    public int[] score(Long viewerUserId, long[] candidateUserIds, double[] distancesKm) {
+        int n = candidateUserIds.length;
+        double[] packed = new double[n * DIM];
+        double[] unknown = unknownFeatures();
+        for (int i = 0; i < n; i++) {
+            double[] f = features.getOrDefault(candidateUserIds[i], unknown);
+            System.arraycopy(f, 0, packed, i * DIM, DIM);
+        }
+
+        int[] out = new int[n];
+        scoreBatch(viewerFeatures(viewerUserId), packed, distancesKm, nowEpochSecond(), out);
+        return out;
+    }
+
+    private double[] viewerFeatures(Long userId) {
+        double[] cached = features.get(userId);
+        if (cached != null) return cached;
+        return petMateRepository.findFirstByUserIdOrderByIdAsc(userId)
+                .map(this::featuresOf)
+                .orElseGet(PetMateScoringEngine::unknownFeatures);
+    }
+
+    private double[] featuresOf(PetMate petMate) {
+        if (petMate.getUserId() == null) return toFeatures(petMate);
+        return features.computeIfAbsent(petMate.getUserId(), id -> toFeatures(petMate));
+    }
+
+    static void scoreBatch(double[] viewer, double[] packed, double[] distancesKm, long nowEpochSecond, int[] out) {
+        double vActivity = viewer[F_ACTIVITY];
+        double vSize = viewer[F_SIZE];
+        double vAge = viewer[F_PET_AGE];
+
+        for (int i = 0, base = 0; i < out.length; i++, base += DIM) {
+            double activity = similarity(vActivity, packed[base + F_ACTIVITY], MAX_ACTIVITY_GAP);
+            double size = similarity(vSize, packed[base + F_SIZE], 2.0);
+            double age = similarity(vAge, packed[base + F_PET_AGE], MAX_AGE_GAP);
+
+            double d = distancesKm[i];
+            double distance = Double.isNaN(d) ? UNKNOWN_SIMILARITY : Math.exp(-d / DISTANCE_DECAY_KM);
+
+            double lastActive = packed[base + F_LAST_ACTIVE];
+            double recency = Double.isNaN(lastActive)
+                    ? 0.0
+                    : Math.exp(-Math.max(0.0, nowEpochSecond - lastActive) / 3600.0 / RECENCY_DECAY_HOURS);
+
+            double total = W_ACTIVITY * activity + W_SIZE * size + W_AGE * age
+                    + W_DISTANCE * distance + W_RECENCY * recency;
+            out[i] = (int) Math.round(total * 100.0);
+        }
+    }
+
+    /**
+     * 점수 상위 k개 인덱스 (점수 내림차순, 동점이면 가까운 순)
+     * 크기 k 의 최소 힙으로 O(n log k) / 메모리 O(k)
+     */
+    public static int[] topK(int[] scores, double[] distancesKm, int k) {
+        Comparator<Integer> worstFirst = (a, b) -> {
+            int cmp = Integer.compare(scores[a], scores[b]);
+            return cmp != 0 ? cmp : Double.compare(distanceOrMax(distancesKm[b]), distanceOrMax(distancesKm[a]));
+        };
+
+        PriorityQueue<Integer> heap = new PriorityQueue<>(Math.max(1, k), worstFirst);
+        for (int i = 0; i < scores.length; i++) {
+            if (heap.size() < k) {
+                heap.offer(i);
+            } else if (k > 0 && worstFirst.compare(i, heap.peek()) > 0) {
+                heap.poll();
+                heap.offer(i);
+            }
+        }
+
+        int[] result = new int[heap.size()];
+        for (int i = result.length - 1; i >= 0; i--) {
+            result[i] = heap.poll();
+        }
+        return result;
+    }
+
+    private static double distanceOrMax(double distanceKm) {
+        return Double.isNaN(distanceKm) ? Double.MAX_VALUE : distanceKm;
+    }
+
+    // 1 - |a - b| / maxGap (0 ~ 1), 둘 중 하나라도 없으면 중간값
+    private static double similarity(double a, double b, double maxGap) {
+        if (Double.isNaN(a) || Double.isNaN(b)) return UNKNOWN_SIMILARITY;
+        return Math.max(0.0, 1.0 - Math.abs(a - b) / maxGap);
+    }
+
+    private static double[] toFeatures(PetMate petMate) {
+        return toFeatures(petMate.getActivityLevel(), petMate.getPetBreed(), petMate.getPetAge(), petMate.getLastActiveAt());
+    }
+
+    private static double[] toFeatures(Integer activityLevel, String petBreed, Integer petAge, LocalDateTime lastActiveAt) {
+        double[] f = new double[DIM];
+        f[F_ACTIVITY] = activityLevel != null ? activityLevel : Double.NaN;
+        Integer size = petBreed != null ? BREED_SIZE.get(petBreed.replace(" ", "")) : null;
+        f[F_SIZE] = size != null ? size : Double.NaN;
+        f[F_PET_AGE] = petAge != null ? petAge : Double.NaN;
+        f[F_LAST_ACTIVE] = toEpochSecond(lastActiveAt);
+        return f;
+    }
+
+    private static double[] unknownFeatures() {
+        double[] f = new double[DIM];
+        Arrays.fill(f, Double.NaN);
+        return f;
+    }
+
+    private static double toEpochSecond(LocalDateTime time) {
+        return time != null ? time.atZone(ZoneId.systemDefault()).toEpochSecond() : Double.NaN;
+    }
+
+    private static long nowEpochSecond() {
+        return System.currentTimeMillis() / 1000;
+    }
+}
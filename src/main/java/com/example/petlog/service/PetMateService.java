@@ -1,26 +1,37 @@
 package com.example.petlog.service;
 
-import com.example.petlog.client.UserServiceClient;
 import com.example.petlog.dto.request.LikeRequest;
 import com.example.petlog.dto.request.PetMateFilterRequest;
 import com.example.petlog.dto.request.PetMateRequest;
+import com.example.petlog.dto.request.SeenRequest;
 import com.example.petlog.dto.response.*;
 import com.example.petlog.entity.PetMate;
 import com.example.petlog.entity.PetMateMatch;
 import com.example.petlog.repository.ChatRoomRepository;
 import com.example.petlog.repository.PetMateMatchRepository;
 import com.example.petlog.repository.PetMateRepository;
+import com.example.petlog.repository.PetMateSearchCondition;
+import com.example.petlog.repository.PetMateSearchResult;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Map;
 import java.util.function.Function;
-import java.util.function.Predicate;
+import java.util.function.LongPredicate;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
@@ -28,117 +39,416 @@ import java.util.stream.Collectors;
 @Slf4j
 public class PetMateService {
 
+    private static final double DEFAULT_RADIUS_KM = 3.0;
+    private static final int MAX_PAGE_SIZE = 100;
+    // userId IN 목록 한 번에 바인딩하는 최대 개수 (PostgreSQL 바인드 파라미터 상한 32767 아래로)
+    private static final int USER_ID_BATCH_SIZE = 1000;
+
     private final PetMateRepository petMateRepository;
     private final PetMateMatchRepository petMateMatchRepository;
     private final MessageService messageService;
-    private final UserServiceClient userServiceClient;
+    private final PetMateGeoIndex geoIndex;
+    private final PetMateInteractionIndex interactionIndex;
+    private final PetMateScoringEngine scoringEngine;
+    private final PetMateCandidateSnapshot candidateSnapshot;
+    private final CandidateDeckCache deckCache;
+    private final SeenCandidateIndex seenIndex;
+    private final LocationUpdateBuffer locationUpdateBuffer;
+    private final LocationDeadBand locationDeadBand;
+    private final LocationLabelResolver locationLabelResolver;
+    private final PresenceRegistry presenceRegistry;
+    private final PresenceFanout presenceFanout;
+    private final KnownProfileRegistry knownProfiles;
+    private final PetMateProfileProvisioner profileProvisioner;
+    private final BadgeCounters badgeCounters;
+    private final TransactionTemplate transactionTemplate;
+
+    // 요청 반경 상한 (넘으면 잘라서 검색)
+    @Value("${petmate.search.max-radius-km:50}")
+    private double maxRadiusKm;
 
     /**
      * [핵심 방어 로직]
      * DB에 프로필이 없으면 User-Service에서 정보를 가져와 자동 생성합니다.
+     * (User Service 호출이 DB 커넥션을 잡지 않도록 트랜잭션 밖에서 호출)
      */
     private void ensurePetMateProfileExists(Long userId) {
-        if (userId == null) return;
-
-        if (!petMateRepository.existsByUserId(userId)) {
-            log.info("PetMate 프로필 없음. 자동 생성 시도 -> UserId: {}", userId);
-            PetMate newProfile = new PetMate();
-            newProfile.setUserId(userId);
-            newProfile.setIsActive(true);
-            newProfile.setIsOnline(true);
-
-            try {
-                // User Service 호출
-                UserInfoResponse userInfo = userServiceClient.getUserInfo(userId);
-                if (userInfo != null) {
-                    newProfile.setUserName(userInfo.getUsername());
-                    newProfile.setUserAvatar(userInfo.getProfileImage());
-                    newProfile.setUserGender(mapGender(userInfo.getGenderType()));
-
-                    if (userInfo.getPets() != null && !userInfo.getPets().isEmpty()) {
-                        var firstPet = userInfo.getPets().get(0);
-                        newProfile.setPetName(firstPet.getPetName());
-                        newProfile.setPetBreed(firstPet.getBreed());
-                        newProfile.setPetPhoto(firstPet.getProfileImage());
-                        newProfile.setPetAge(firstPet.getAge());
-                        newProfile.setPetGender(mapGender(firstPet.getGenderType()));
-                    } else {
-                        newProfile.setPetName("반려동물");
-                        newProfile.setPetBreed("믹스견");
-                    }
-                }
-            } catch (Exception e) {
-                log.warn("User Service 연동 실패 (ID: {}). 기본값 생성.", userId);
-                newProfile.setUserName("User " + userId);
-                newProfile.setPetName("반려동물");
-                newProfile.setPetBreed("알수없음");
-                newProfile.setUserGender("미설정");
-            }
-            petMateRepository.save(newProfile);
-        }
-    }
-
-    private String mapGender(String genderType) {
-        if (genderType == null) return "미설정";
-        return switch (genderType.toUpperCase()) {
-            case "MALE", "M" -> "남성";
-            case "FEMALE", "F" -> "여성";
-            default -> "미설정";
-        };
+        profileProvisioner.ensureExists(userId);
     }
 
     // [수정됨] 위치 업데이트 시 프로필이 없으면 만들고 업데이트
-    @Transactional
+    // [성능] DB 반영은 LocationUpdateBuffer 가 모아서 배치 UPDATE (인메모리 인덱스는 즉시 갱신)
     public boolean updateLocation(Long userId, Double latitude, Double longitude, String location) {
         // 1. 프로필이 있는지 먼저 확인하고 없으면 만듦 (User Service 호출 포함)
         ensurePetMateProfileExists(userId);
 
-        // 2. 이제 안심하고 업데이트
-        PetMate petMate = petMateRepository.findFirstByUserIdOrderByIdAsc(userId)
-                .orElseThrow(() -> new IllegalStateException("프로필 생성 실패")); // 여기로 올 일 없음
+        // 2. 버퍼에 적재 (같은 사용자의 연속 업데이트는 마지막 값만 저장됨)
+        applyLocation(userId, latitude, longitude, location);
+        locationDeadBand.record(userId, latitude, longitude);
+        return true;
+    }
 
-        petMate.setLatitude(latitude);
-        petMate.setLongitude(longitude);
-        if (location != null) {
-            petMate.setLocation(location);
-        }
-        petMate.setIsOnline(true);
-        petMate.setLastActiveAt(LocalDateTime.now());
+    /**
+     * 위치 스트림(WebSocket) 업데이트 - 데드밴드를 통과한 값만 반영
+     * 지역명은 셀 단위 캐시에서 가져오고, 없으면 백그라운드 조회가 끝난 뒤 반영
+     *
+     * @return 반영했으면 true, 데드밴드에 걸려 버렸으면 false
+     */
+    public boolean streamLocation(Long userId, Double latitude, Double longitude) {
+        if (userId == null || latitude == null || longitude == null) return false;
+        if (!locationDeadBand.accept(userId, latitude, longitude)) return false;
 
-        petMateRepository.save(petMate);
+        ensurePetMateProfileExists(userId);
+
+        String location = locationLabelResolver.resolve(latitude, longitude, label -> {
+            // 조회가 끝났을 때 사용자가 아직 같은 셀에 있으면 현재 위치와 함께 반영
+            PetMateGeoIndex.Position current = geoIndex.locate(userId);
+            if (current != null && PetMateGeoIndex.cellKey(current.latitude(), current.longitude())
+                    == PetMateGeoIndex.cellKey(latitude, longitude)) {
+                locationUpdateBuffer.offer(userId, current.latitude(), current.longitude(), label);
+            }
+        });
+        applyLocation(userId, latitude, longitude, location);
         return true;
     }
 
-    @Transactional
+    private void applyLocation(Long userId, Double latitude, Double longitude, String location) {
+        locationUpdateBuffer.offer(userId, latitude, longitude, location);
+        geoIndex.upsert(userId, latitude, longitude);
+        candidateSnapshot.updateLocation(userId, latitude, longitude);
+        scoringEngine.updateLastActive(userId, LocalDateTime.now());
+        presenceRegistry.touch(userId);
+    }
+
+    // 트랜잭션 없이 실행 (조회만 하고, 프로필 자동 생성의 원격 호출이 커넥션을 잡지 않도록)
     public List<PetMateResponse> getCandidates(Long userId, PetMateFilterRequest filter) {
         ensurePetMateProfileExists(userId);
+        filter.setRadiusKm(radiusOf(filter));
+
+        if (filter.getLatitude() != null && filter.getLongitude() != null
+                && PetMateGeoIndex.canCover(filter.getLatitude(), filter.getLongitude(), filter.getRadiusKm())) {
+            // [성능] 같은 셀/같은 필터로 다시 열면 미리 계산된 덱을 그대로 사용 (무효일 때만 재계산)
+            return deckCache.getOrCompute(userId, filter, f -> computeCandidates(userId, f));
+        }
+        return computeCandidates(userId, filter);
+    }
+
+    /**
+     * 후보 계산 (덱 캐시를 거치지 않음, 덱 미리 계산 스케줄러에서도 사용)
+     */
+    public List<PetMateResponse> computeCandidates(Long userId, PetMateFilterRequest filter) {
+        boolean hasLocation = filter.getLatitude() != null && filter.getLongitude() != null;
+        double radiusKm = radiusOf(filter);
+
+        // 이미 좋아요/매칭/거절했거나 본(넘긴) 상대는 후보에서 제외
+        LongPredicate interacted = interactionIndex.excluder(userId).or(seenIndex.excluder(userId));
+
+        if (candidateSnapshot.isReady()) {
+            // [성능] 컬럼 스냅샷에서 필터/점수/상위 K 선정까지 끝내고, 내려줄 행만 엔티티 로딩
+            return candidatesFromSnapshot(userId, filter, hasLocation, radiusKm, interacted);
+        }
 
         List<PetMate> candidates;
-        if (filter.getLatitude() != null && filter.getLongitude() != null) {
-            candidates = petMateRepository.findNearbyPetMates(
-                    filter.getLatitude(), filter.getLongitude(), filter.getRadiusKm(), userId);
+        if (hasLocation && canUseGeoIndex(filter, radiusKm)) {
+            // [성능] 공간 인덱스로 반경 내 userId만 먼저 추린 뒤 해당 프로필만 조회
+            candidates = findNearbyFromIndex(userId, filter, radiusKm, interacted);
+        } else {
+            // [성능] 위경도 박스 + 성별/견종/활동량 조건을 SQL 로 처리
+            PetMateSearchCondition.PetMateSearchConditionBuilder condition = toSearchCondition(userId, filter);
+            if (hasLocation) {
+                condition.latitude(filter.getLatitude())
+                        .longitude(filter.getLongitude())
+                        .radiusKm(radiusKm);
+            }
+            candidates = petMateRepository.searchCandidates(condition.build());
+        }
+
+        List<PetMate> visible = candidates.stream()
+                .filter(pm -> !interacted.test(pm.getUserId()))
+                .collect(Collectors.toList());
+        return toScoredResponses(userId, visible, filter, filter.getLimit());
+    }
+
+    private List<PetMateResponse> candidatesFromSnapshot(Long userId, PetMateFilterRequest filter, boolean hasLocation,
+                                                         double radiusKm, LongPredicate interacted) {
+        long[] nearbyUserIds = null;
+        if (hasLocation && canUseGeoIndex(filter, radiusKm)) {
+            nearbyUserIds = geoIndex.findWithin(filter.getLatitude(), filter.getLongitude(), radiusKm, userId).stream()
+                    .mapToLong(PetMateGeoIndex.Hit::userId)
+                    .toArray();
+        }
+
+        String breed = filter.getPetBreed();
+        PetMateCandidateSnapshot.Criteria criteria = new PetMateCandidateSnapshot.Criteria(
+                userId,
+                toStoredGender(filter.getUserGender()),
+                breed == null || "all".equalsIgnoreCase(breed) ? null : breed,
+                filter.getMinActivityLevel(),
+                filter.getMaxActivityLevel(),
+                hasLocation ? filter.getLatitude() : null,
+                hasLocation ? filter.getLongitude() : null,
+                hasLocation ? radiusKm : null);
+        PetMateCandidateSnapshot.Result result = candidateSnapshot.filter(nearbyUserIds, criteria);
+
+        // 상호작용한 상대 제외 (배열 압축)
+        long[] ids = new long[result.size()];
+        double[] distances = new double[result.size()];
+        int n = 0;
+        for (int i = 0; i < result.size(); i++) {
+            if (interacted.test(result.userIds()[i])) continue;
+            ids[n] = result.userIds()[i];
+            distances[n] = result.distancesKm()[i];
+            n++;
+        }
+        ids = Arrays.copyOf(ids, n);
+        distances = Arrays.copyOf(distances, n);
+
+        int[] scores = scoringEngine.score(userId, ids, distances);
+        Integer limit = filter.getLimit();
+        int[] selected;
+        if (limit != null && limit >= 0 && limit < n) {
+            selected = PetMateScoringEngine.topK(scores, distances, limit);
         } else {
-            candidates = petMateRepository.findActivePetMatesExcludingUser(userId);
+            selected = new int[n];
+            for (int i = 0; i < n; i++) selected[i] = i;
+        }
+        if (selected.length == 0) return new ArrayList<>();
+
+        // 선택된 후보만 엔티티 로딩
+        List<Long> selectedUserIds = new ArrayList<>(selected.length);
+        for (int i : selected) selectedUserIds.add(ids[i]);
+        Map<Long, PetMate> byUserId = loadByUserIds(PetMateSearchCondition::builder, selectedUserIds);
+
+        List<PetMateResponse> responses = new ArrayList<>(selected.length);
+        for (int i : selected) {
+            PetMate petMate = byUserId.get(ids[i]);
+            if (petMate == null) continue;
+            Double distance = Double.isNaN(distances[i]) ? null : Math.round(distances[i] * 100.0) / 100.0;
+            responses.add(convertToResponse(petMate, distance, scores[i]));
+        }
+        return responses;
+    }
+
+    private List<PetMateResponse> toScoredResponses(Long userId, List<PetMate> candidates,
+                                                    PetMateFilterRequest filter, Integer limit) {
+        Double[] distances = new Double[candidates.size()];
+        double[] rawDistances = new double[candidates.size()];
+        for (int i = 0; i < candidates.size(); i++) {
+            PetMate pm = candidates.get(i);
+            distances[i] = calculateDistance(filter.getLatitude(), filter.getLongitude(), pm.getLatitude(), pm.getLongitude());
+            rawDistances[i] = distances[i] != null ? distances[i] : Double.NaN;
+        }
+        int[] scores = scoringEngine.score(userId, candidates, rawDistances);
+
+        // limit 지정 시 상위 K명만 DTO 로 변환 (점수순)
+        if (limit != null && limit >= 0 && limit < candidates.size()) {
+            int[] top = PetMateScoringEngine.topK(scores, rawDistances, limit);
+            List<PetMateResponse> responses = new ArrayList<>(top.length);
+            for (int i : top) {
+                responses.add(convertToResponse(candidates.get(i), distances[i], scores[i]));
+            }
+            return responses;
         }
 
-        return candidates.stream()
-                .filter(pm -> filterByGender(pm, filter.getUserGender()))
-                .filter(pm -> filterByBreed(pm, filter.getPetBreed()))
-                .filter(pm -> filterByActivityLevel(pm, filter.getMinActivityLevel(), filter.getMaxActivityLevel()))
-                .map(pm -> convertToResponse(pm, calculateDistance(
-                        filter.getLatitude(), filter.getLongitude(),
-                        pm.getLatitude(), pm.getLongitude())))
+        List<PetMateResponse> responses = new ArrayList<>(candidates.size());
+        for (int i = 0; i < candidates.size(); i++) {
+            responses.add(convertToResponse(candidates.get(i), distances[i], scores[i]));
+        }
+        return responses;
+    }
+
+    /**
+     * 후보 덱 키셋 페이지 조회 - (거리, userId) 순으로 size 개씩 + 다음 커서
+     */
+    public CandidatePageResponse getCandidatePage(Long userId, PetMateFilterRequest filter, String cursor, int size) {
+        ensurePetMateProfileExists(userId);
+
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        CandidateCursor after = CandidateCursor.decode(cursor);
+        boolean hasLocation = filter.getLatitude() != null && filter.getLongitude() != null;
+        double radiusKm = radiusOf(filter);
+        LongPredicate interacted = interactionIndex.excluder(userId).or(seenIndex.excluder(userId));
+
+        // 다음 페이지 존재 여부 확인을 위해 1건 더 조회 (두 경로 모두 제외 대상을 빼고 pageSize + 1 건을 채움)
+        List<PetMateSearchResult> rows;
+        if (hasLocation && canUseGeoIndex(filter, radiusKm)) {
+            rows = findNearbyPageFromIndex(userId, filter, radiusKm, after, pageSize + 1, interacted);
+        } else {
+            rows = findPageFromDb(userId, filter, hasLocation, radiusKm, after, pageSize + 1, interacted);
+        }
+
+        boolean hasNext = rows.size() > pageSize;
+        List<PetMateSearchResult> page = hasNext ? rows.subList(0, pageSize) : rows;
+
+        String nextCursor = null;
+        if (hasNext) {
+            PetMateSearchResult last = page.get(page.size() - 1);
+            Long distanceKey = last.distanceKm() != null ? PetMateSearchCondition.distanceKeyOf(last.distanceKm()) : null;
+            nextCursor = new CandidateCursor(distanceKey, last.petMate().getUserId()).encode();
+        }
+
+        List<PetMate> petMates = page.stream()
+                .map(PetMateSearchResult::petMate)
                 .collect(Collectors.toList());
+        List<PetMateResponse> candidates = toScoredResponses(userId, petMates, filter, null);
+
+        return CandidatePageResponse.builder()
+                .candidates(candidates)
+                .nextCursor(nextCursor)
+                .hasNext(hasNext)
+                .build();
+    }
+
+    // 상호작용한 상대는 SQL(NOT EXISTS)로 빼고, DB 에 없는 본 후보(Bloom 필터)는 걸러진 만큼 이어서 조회
+    private List<PetMateSearchResult> findPageFromDb(Long userId, PetMateFilterRequest filter, boolean hasLocation,
+                                                     double radiusKm, CandidateCursor after, int limit,
+                                                     LongPredicate interacted) {
+        int batchSize = Math.max(limit * 2, 50);
+        Long afterDistanceKey = after != null ? after.distanceKey() : null;
+        Long afterUserId = after != null ? after.userId() : null;
+        List<PetMateSearchResult> rows = new ArrayList<>(limit);
+        while (rows.size() < limit) {
+            PetMateSearchCondition.PetMateSearchConditionBuilder condition = toSearchCondition(userId, filter)
+                    .excludeInteractedBy(userId)
+                    .afterDistanceKey(afterDistanceKey)
+                    .afterUserId(afterUserId)
+                    .limit(batchSize);
+            if (hasLocation) {
+                condition.latitude(filter.getLatitude())
+                        .longitude(filter.getLongitude())
+                        .radiusKm(radiusKm);
+            }
+            List<PetMateSearchResult> fetched = petMateRepository.searchCandidatePage(condition.build());
+            for (PetMateSearchResult row : fetched) {
+                if (interacted.test(row.petMate().getUserId())) continue;
+                rows.add(row);
+                if (rows.size() >= limit) break;
+            }
+            if (fetched.size() < batchSize) break;
+
+            PetMateSearchResult last = fetched.get(fetched.size() - 1);
+            afterDistanceKey = last.distanceKm() != null ? PetMateSearchCondition.distanceKeyOf(last.distanceKm()) : null;
+            afterUserId = last.petMate().getUserId();
+        }
+        return rows;
+    }
+
+    // [성능] 반경 전체를 정렬하지 않고 커서 이후 앞쪽 후보만 힙으로 골라서 필요한 만큼 청크 단위로 조회
+    private List<PetMateSearchResult> findNearbyPageFromIndex(Long userId, PetMateFilterRequest filter,
+                                                              double radiusKm, CandidateCursor after, int limit,
+                                                              LongPredicate interacted) {
+        // 성별/견종 등 SQL 조건으로 걸러지는 행이 있으므로 limit 보다 넉넉하게
+        int chunkSize = Math.max(limit * 2, 50);
+        CandidateCursor position = after;
+        List<PetMateSearchResult> rows = new ArrayList<>(limit);
+        while (rows.size() < limit) {
+            List<PetMateGeoIndex.Hit> chunk = geoIndex.findNearestAfter(
+                    filter.getLatitude(), filter.getLongitude(), radiusKm, userId, interacted, position, chunkSize);
+            if (chunk.isEmpty()) break;
+
+            Map<Long, PetMate> byUserId = loadByUserIds(() -> toSearchCondition(userId, filter),
+                    chunk.stream().map(PetMateGeoIndex.Hit::userId).collect(Collectors.toList()));
+            for (PetMateGeoIndex.Hit hit : chunk) {
+                PetMate petMate = byUserId.get(hit.userId());
+                if (petMate == null) continue;
+                rows.add(new PetMateSearchResult(petMate, hit.distanceKm()));
+                if (rows.size() >= limit) break;
+            }
+            if (chunk.size() < chunkSize) break;
+
+            PetMateGeoIndex.Hit last = chunk.get(chunk.size() - 1);
+            position = new CandidateCursor(last.distanceKey(), last.userId());
+        }
+        return rows;
+    }
+
+    private List<PetMate> findNearbyFromIndex(Long userId, PetMateFilterRequest filter, double radiusKm,
+                                              LongPredicate interacted) {
+        List<PetMateGeoIndex.Hit> hits = geoIndex.findWithin(
+                filter.getLatitude(), filter.getLongitude(), radiusKm, userId);
+        hits.removeIf(hit -> interacted.test(hit.userId()));
+        if (hits.isEmpty()) return new ArrayList<>();
+
+        Map<Long, PetMate> byUserId = loadByUserIds(() -> toSearchCondition(userId, filter),
+                hits.stream().map(PetMateGeoIndex.Hit::userId).collect(Collectors.toList()));
+
+        // 인덱스의 거리순 정렬을 그대로 유지
+        List<PetMate> candidates = new ArrayList<>(byUserId.size());
+        for (PetMateGeoIndex.Hit hit : hits) {
+            PetMate petMate = byUserId.get(hit.userId());
+            if (petMate != null) candidates.add(petMate);
+        }
+        return candidates;
+    }
+
+    /**
+     * userId 목록의 프로필 조회 - IN 목록이 너무 길어지지 않게 USER_ID_BATCH_SIZE 개씩 나눠서 조회
+     *
+     * @param condition 매 조회마다 새로 만드는 기본 조건 (userIds 는 여기서 채움)
+     */
+    private Map<Long, PetMate> loadByUserIds(Supplier<PetMateSearchCondition.PetMateSearchConditionBuilder> condition,
+                                             List<Long> userIds) {
+        Map<Long, PetMate> byUserId = new HashMap<>(userIds.size() * 2);
+        for (int from = 0; from < userIds.size(); from += USER_ID_BATCH_SIZE) {
+            List<Long> batch = userIds.subList(from, Math.min(from + USER_ID_BATCH_SIZE, userIds.size()));
+            for (PetMate petMate : petMateRepository.searchCandidates(condition.get().userIds(batch).build())) {
+                byUserId.putIfAbsent(petMate.getUserId(), petMate);
+            }
+        }
+        return byUserId;
+    }
+
+    /**
+     * 요청 반경 (없거나 잘못된 값이면 기본값, 상한을 넘으면 상한)
+     */
+    private double radiusOf(PetMateFilterRequest filter) {
+        Double radiusKm = filter.getRadiusKm();
+        if (radiusKm == null || !Double.isFinite(radiusKm) || radiusKm <= 0) return DEFAULT_RADIUS_KM;
+        return Math.min(radiusKm, maxRadiusKm);
+    }
+
+    // 반경이 덮는 셀이 너무 많으면(고위도 등) 인덱스 대신 DB/스냅샷의 위경도 박스 검색 사용
+    private boolean canUseGeoIndex(PetMateFilterRequest filter, double radiusKm) {
+        return geoIndex.isReady()
+                && PetMateGeoIndex.canCover(filter.getLatitude(), filter.getLongitude(), radiusKm);
+    }
+
+    private PetMateSearchCondition.PetMateSearchConditionBuilder toSearchCondition(Long userId, PetMateFilterRequest filter) {
+        String breed = filter.getPetBreed();
+        return PetMateSearchCondition.builder()
+                .excludeUserId(userId)
+                .userGender(toStoredGender(filter.getUserGender()))
+                .petBreed(breed == null || "all".equalsIgnoreCase(breed) ? null : breed)
+                .minActivityLevel(filter.getMinActivityLevel())
+                .maxActivityLevel(filter.getMaxActivityLevel());
+    }
+
+    // 필터의 "male"/"female" 을 DB 저장값으로 변환 ("all" 등은 조건 없음)
+    private String toStoredGender(String gender) {
+        if ("male".equalsIgnoreCase(gender)) return "남성";
+        if ("female".equalsIgnoreCase(gender)) return "여성";
+        return null;
+    }
+
+    /**
+     * 본/넘긴 후보 기록 - 이후 후보 조회에서 제외
+     */
+    public void markSeen(Long userId, SeenRequest request) {
+        seenIndex.markSeen(userId, request.getCandidateUserIds());
     }
 
-    @Transactional
     public MatchResponse like(LikeRequest request) {
         Long senderId = request.getFromUserId();
         Long receiverId = request.getToUserId();
 
+        // 프로필 자동 생성(User Service 호출)은 트랜잭션 밖에서 먼저 처리
         ensurePetMateProfileExists(senderId);
         ensurePetMateProfileExists(receiverId);
 
+        return transactionTemplate.execute(status -> likeInTransaction(senderId, receiverId));
+    }
+
+    private MatchResponse likeInTransaction(Long senderId, Long receiverId) {
         if (petMateMatchRepository.existsByFromUserIdAndToUserId(senderId, receiverId)) {
             return MatchResponse.builder().isMatched(false).alreadyLiked(true).build();
         }
@@ -152,6 +462,9 @@ public class PetMateService {
             match.setMatchedAt(LocalDateTime.now());
 
             PetMateMatch otherMatch = mutualLike.get();
+            if (otherMatch.getStatus() == PetMateMatch.MatchStatus.PENDING) {
+                badgeCounters.addPendingRequests(senderId, -1);
+            }
             otherMatch.setStatus(PetMateMatch.MatchStatus.MATCHED);
             otherMatch.setMatchedAt(LocalDateTime.now());
             petMateMatchRepository.save(otherMatch);
@@ -164,9 +477,15 @@ public class PetMateService {
             }
         } else {
             match.setStatus(PetMateMatch.MatchStatus.PENDING);
+            badgeCounters.addPendingRequests(receiverId, 1);
         }
 
         petMateMatchRepository.save(match);
+        interactionIndex.add(senderId, receiverId);
+        if (mutualLike.isPresent()) {
+            interactionIndex.add(receiverId, senderId);
+            presenceFanout.invalidateMatches(senderId, receiverId);
+        }
         PetMate matchedUser = petMateRepository.findFirstByUserIdOrderByIdAsc(receiverId).orElse(new PetMate());
 
         return MatchResponse.builder()
@@ -192,83 +511,41 @@ public class PetMateService {
             PetMateMatch match = existingLike.get();
             if (match.getStatus() == PetMateMatch.MatchStatus.PENDING) {
                 petMateMatchRepository.delete(match);
+                interactionIndex.remove(match.getFromUserId(), match.getToUserId());
+                badgeCounters.addPendingRequests(match.getToUserId(), -1);
                 return true;
             }
         }
         return false;
     }
 
-    public List<PendingRequestResponse> getSentRequests(Long userId) {
+    // [성능] 상대 프로필은 조인 쿼리 한 번으로 조회 (size 가 없으면 전체)
+    public List<PendingRequestResponse> getSentRequests(Long userId, int page, Integer size) {
         ensurePetMateProfileExists(userId);
-        return petMateMatchRepository.findSentPendingRequests(userId).stream()
-                .map(match -> {
-                    PetMate receiver = petMateRepository.findFirstByUserIdOrderByIdAsc(match.getToUserId()).orElse(new PetMate());
-                    return PendingRequestResponse.builder()
-                            .matchId(match.getId())
-                            .fromUserId(match.getToUserId())
-                            .fromUserName(receiver.getUserName() != null ? receiver.getUserName() : "알 수 없음")
-                            .fromUserAvatar(receiver.getUserAvatar())
-                            .petName(receiver.getPetName())
-                            .petPhoto(receiver.getPetPhoto())
-                            .petBreed(receiver.getPetBreed())
-                            .petAge(receiver.getPetAge())
-                            .location(receiver.getLocation())
-                            .createdAt(match.getCreatedAt())
-                            .build();
-                })
-                .collect(Collectors.toList());
+        return petMateMatchRepository.findSentPendingRequestViews(userId, pageOf(page, size));
     }
 
-    public List<PendingRequestResponse> getPendingRequests(Long userId) {
+    public List<PendingRequestResponse> getPendingRequests(Long userId, int page, Integer size) {
         ensurePetMateProfileExists(userId);
-        return petMateMatchRepository.findPendingLikesForUser(userId).stream()
-                .map(match -> {
-                    PetMate requester = petMateRepository.findFirstByUserIdOrderByIdAsc(match.getFromUserId()).orElse(new PetMate());
-                    return PendingRequestResponse.builder()
-                            .matchId(match.getId())
-                            .fromUserId(match.getFromUserId())
-                            .fromUserName(requester.getUserName() != null ? requester.getUserName() : "알 수 없음")
-                            .fromUserAvatar(requester.getUserAvatar())
-                            .petName(requester.getPetName())
-                            .petPhoto(requester.getPetPhoto())
-                            .petBreed(requester.getPetBreed())
-                            .petAge(requester.getPetAge())
-                            .location(requester.getLocation())
-                            .createdAt(match.getCreatedAt())
-                            .build();
-                })
-                .collect(Collectors.toList());
+        return petMateMatchRepository.findPendingRequestViews(userId, pageOf(page, size));
     }
 
+    // [성능] 배지 폴링용: 메모리 카운터에서 바로 반환
     public Long getPendingRequestsCount(Long userId) {
-        return (long) petMateMatchRepository.findPendingLikesForUser(userId).size();
+        return badgeCounters.pendingRequests(userId);
     }
 
-    public List<MatchResponse> getMatches(Long userId) {
+    public List<MatchResponse> getMatches(Long userId, int page, Integer size) {
         ensurePetMateProfileExists(userId);
-        return petMateMatchRepository.findMatchedByUserId(userId).stream()
-                .map(match -> {
-                    Long matchedUserId = match.getFromUserId().equals(userId) ? match.getToUserId() : match.getFromUserId();
-                    PetMate petMate = petMateRepository.findFirstByUserIdOrderByIdAsc(matchedUserId).orElse(new PetMate());
-
-                    return MatchResponse.builder()
-                            .matchId(match.getId())
-                            .matchedUserId(matchedUserId)
-                            .matchedUserName(petMate.getUserName() != null ? petMate.getUserName() : "알 수 없음")
-                            .matchedUserAvatar(petMate.getUserAvatar())
-                            .petName(petMate.getPetName())
-                            .petPhoto(petMate.getPetPhoto())
-                            .isMatched(true)
-                            .matchedAt(match.getMatchedAt())
-                            .build();
-                })
-                .filter(distinctByKey(MatchResponse::getMatchedUserId))
-                .collect(Collectors.toList());
+        return petMateMatchRepository.findMatchViews(userId, pageOf(page, size));
     }
 
-    private static <T> Predicate<T> distinctByKey(Function<? super T, ?> keyExtractor) {
-        ConcurrentHashMap.KeySetView<Object, Boolean> seen = ConcurrentHashMap.newKeySet();
-        return t -> seen.add(keyExtractor.apply(t));
+    private static Pageable pageOf(int page, Integer size) {
+        if (size == null) return Pageable.unpaged();
+        if (page < 0 || size <= 0) {
+            throw new IllegalArgumentException("page 는 0 이상, size 는 1 이상이어야 합니다.");
+        }
+        return PageRequest.of(page, size);
     }
 
     @Transactional
@@ -293,7 +570,15 @@ public class PetMateService {
         petMate.setIsActive(true);
 
         PetMate saved = petMateRepository.save(petMate);
-        return convertToResponse(saved, null);
+        // 인메모리 인덱스는 커밋된 뒤에만 반영 (롤백되면 DB 에 없는 프로필이 보이지 않도록)
+        afterCommit(() -> {
+            knownProfiles.add(saved.getUserId());
+            geoIndex.upsert(saved.getUserId(), saved.getLatitude(), saved.getLongitude());
+            geoIndex.markChanged(saved.getUserId());
+            candidateSnapshot.upsert(saved);
+            scoringEngine.update(saved);
+        });
+        return convertToResponse(saved, null, null);
     }
 
     public List<Long> getLikedUserIds(Long userId) {
@@ -303,23 +588,34 @@ public class PetMateService {
                 .collect(Collectors.toList());
     }
 
-    @Transactional
+    /**
+     * WebSocket 접속 유지 신호 (세션에 연결된 userId, 없으면 프레임 헤더의 userId)
+     */
+    public void heartbeat(String sessionId, String userIdHeader) {
+        presenceRegistry.heartbeat(sessionId, userIdHeader);
+    }
+
+    // [성능] 온라인 상태는 PresenceRegistry 가 메모리에서 관리하고 주기적으로 DB 에 일괄 반영
     public void updateOnlineStatus(Long userId, boolean isOnline) {
         ensurePetMateProfileExists(userId);
-        petMateRepository.findFirstByUserIdOrderByIdAsc(userId).ifPresent(petMate -> {
-            petMate.setIsOnline(isOnline);
-            petMate.setLastActiveAt(LocalDateTime.now());
-            petMateRepository.save(petMate);
-        });
+        if (isOnline) {
+            presenceRegistry.touch(userId);
+        } else {
+            presenceRegistry.markOffline(userId);
+            locationDeadBand.forget(userId);
+        }
+        scoringEngine.updateLastActive(userId, LocalDateTime.now());
     }
 
     public PetMateResponse getSavedLocation(Long userId) {
+        // 아직 DB 에 반영되지 않은 최신 위치가 있으면 그 값을 우선
+        LocationUpdateBuffer.PendingLocation pending = locationUpdateBuffer.pendingOf(userId);
         return petMateRepository.findFirstByUserIdOrderByIdAsc(userId)
                 .map(pm -> PetMateResponse.builder()
                         .userId(pm.getUserId())
-                        .latitude(pm.getLatitude())
-                        .longitude(pm.getLongitude())
-                        .location(pm.getLocation())
+                        .latitude(pending != null ? pending.latitude() : pm.getLatitude())
+                        .longitude(pending != null ? pending.longitude() : pm.getLongitude())
+                        .location(pending != null && pending.location() != null ? pending.location() : pm.getLocation())
                         .build())
                 .orElse(null);
     }
@@ -355,6 +651,9 @@ public class PetMateService {
                 petMateMatchRepository.save(newMatch);
             } else {
                 PetMateMatch existing = reverseMatch.get();
+                if (existing.getStatus() == PetMateMatch.MatchStatus.PENDING) {
+                    badgeCounters.addPendingRequests(match.getFromUserId(), -1);
+                }
                 existing.setStatus(PetMateMatch.MatchStatus.MATCHED);
                 existing.setMatchedAt(LocalDateTime.now());
                 petMateMatchRepository.save(existing);
@@ -371,6 +670,11 @@ public class PetMateService {
         }
 
         petMateMatchRepository.save(match);
+        badgeCounters.addPendingRequests(userId, -1);
+        interactionIndex.add(userId, match.getFromUserId());
+        if (accept) {
+            presenceFanout.invalidateMatches(userId, match.getFromUserId());
+        }
 
         return MatchResponse.builder()
                 .matchId(matchId)
@@ -400,29 +704,14 @@ public class PetMateService {
             petMateMatchRepository.delete(match2.get());
             deleted = true;
         }
+        if (deleted) {
+            interactionIndex.remove(userId, matchedUserId);
+            interactionIndex.remove(matchedUserId, userId);
+            presenceFanout.invalidateMatches(userId, matchedUserId);
+        }
         return deleted;
     }
 
-    private boolean filterByGender(PetMate pm, String gender) {
-        if (gender == null || "all".equalsIgnoreCase(gender)) return true;
-        if ("male".equalsIgnoreCase(gender)) return "남성".equals(pm.getUserGender());
-        if ("female".equalsIgnoreCase(gender)) return "여성".equals(pm.getUserGender());
-        return true;
-    }
-
-    private boolean filterByBreed(PetMate pm, String breed) {
-        if (breed == null || "all".equalsIgnoreCase(breed)) return true;
-        return breed.equals(pm.getPetBreed());
-    }
-
-    private boolean filterByActivityLevel(PetMate pm, Integer min, Integer max) {
-        if (min == null && max == null) return true;
-        int level = pm.getActivityLevel() != null ? pm.getActivityLevel() : 0;
-        if (min != null && level < min) return false;
-        if (max != null && level > max) return false;
-        return true;
-    }
-
     private Double calculateDistance(Double lat1, Double lon1, Double lat2, Double lon2) {
         if (lat1 == null || lon1 == null || lat2 == null || lon2 == null) return null;
         final int R = 6371;
@@ -435,7 +724,9 @@ public class PetMateService {
         return Math.round(R * c * 100.0) / 100.0;
     }
 
-    private PetMateResponse convertToResponse(PetMate petMate, Double distance) {
+    private PetMateResponse convertToResponse(PetMate petMate, Double distance, Integer matchScore) {
+        // 접속 상태/최근 접속은 메모리 presence 기준 (DB 값은 주기적으로만 갱신됨)
+        LocalDateTime lastActiveAt = presenceRegistry.lastActiveAt(petMate.getUserId());
         return PetMateResponse.builder()
                 .id(petMate.getId())
                 .userId(petMate.getUserId())
@@ -452,13 +743,22 @@ public class PetMateService {
                 .distance(distance)
                 .location(petMate.getLocation())
                 .commonInterests(new ArrayList<>())
-                .matchScore(calculateMatchScore(petMate))
-                .isOnline(petMate.getIsOnline())
-                .lastActiveAt(petMate.getLastActiveAt())
+                .matchScore(matchScore)
+                .isOnline(presenceRegistry.isOnline(petMate.getUserId()))
+                .lastActiveAt(lastActiveAt != null ? lastActiveAt : petMate.getLastActiveAt())
                 .build();
     }
 
-    private Integer calculateMatchScore(PetMate petMate) {
-        return (int) (Math.random() * 30 + 70);
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
     }
-}
\ No newline at end of file
+}
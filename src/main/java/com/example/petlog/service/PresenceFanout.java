@@ -0,0 +1,136 @@
+package com.example.petlog.service;
+
+import com.example.petlog.dto.response.PresenceResponse;
+import com.example.petlog.entity.PetMateMatch;
+import com.example.petlog.repository.PetMateMatchRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 접속 상태 변경을 매칭 상대에게 전파 (/sub/presence/{매칭 상대 userId})
+ * - 사용자별로 debounce: 변경 후 일정 시간 기다렸다가 마지막 상태만 전송
+ *   (모바일 연결이 끊겼다 붙었다 해도 상태가 원래대로 돌아왔으면 아무것도 보내지 않음)
+ * - 매칭 상대 목록은 캐시하고, 매칭/매칭 해제 커밋 후 무효화
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PresenceFanout {
+
+    private static final String DESTINATION_PREFIX = "/sub/presence/";
+    private static final int MAX_CACHED_MATCH_LISTS = 50_000;
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final PetMateMatchRepository petMateMatchRepository;
+
+    @Value("${petmate.presence.fanout-debounce-ms:3000}")
+    private long debounceMs;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "presence-fanout");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // debounce 중인 사용자의 최신 상태
+    private final Map<Long, Boolean> pendingStates = new ConcurrentHashMap<>();
+    // 마지막으로 온라인이라고 알린 사용자
+    private final Set<Long> announcedOnline = ConcurrentHashMap.newKeySet();
+
+    // userId -> 매칭 상대 userId 목록 (LRU)
+    private final Map<Long, long[]> matchCache = Collections.synchronizedMap(
+            new LinkedHashMap<>(256, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, long[]> eldest) {
+                    return size() > MAX_CACHED_MATCH_LISTS;
+                }
+            });
+
+    /**
+     * 접속 상태 변경 알림 (실제 전송은 debounce 이후)
+     */
+    public void onPresenceChanged(Long userId, boolean online) {
+        if (pendingStates.put(userId, online) == null) {
+            scheduler.schedule(() -> publish(userId), debounceMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * 매칭 목록 변경 시 캐시 무효화 (트랜잭션 안이면 커밋 후)
+     */
+    public void invalidateMatches(Long... userIds) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(userIds);
+                }
+            });
+        } else {
+            evict(userIds);
+        }
+    }
+
+    private void evict(Long... userIds) {
+        for (Long userId : userIds) {
+            matchCache.remove(userId);
+        }
+    }
+
+    private void publish(Long userId) {
+        Boolean online = pendingStates.remove(userId);
+        if (online == null) return;
+
+        // 이미 알린 상태와 같으면 전송 생략
+        boolean changed = online ? announcedOnline.add(userId) : announcedOnline.remove(userId);
+        if (!changed) return;
+
+        try {
+            PresenceResponse event = PresenceResponse.builder()
+                    .userId(userId)
+                    .isOnline(online)
+                    .changedAt(LocalDateTime.now())
+                    .build();
+            for (long matchedUserId : matchesOf(userId)) {
+                messagingTemplate.convertAndSend(DESTINATION_PREFIX + matchedUserId, event);
+            }
+        } catch (Exception e) {
+            log.warn("접속 상태 전파 실패 (UserId: {})", userId, e);
+        }
+    }
+
+    private long[] matchesOf(Long userId) {
+        long[] cached = matchCache.get(userId);
+        if (cached != null) return cached;
+
+        List<PetMateMatch> matches = petMateMatchRepository.findMatchedByUserId(userId);
+        long[] matchedUserIds = matches.stream()
+                .mapToLong(m -> m.getFromUserId().equals(userId) ? m.getToUserId() : m.getFromUserId())
+                .distinct()
+                .toArray();
+        matchCache.put(userId, matchedUserIds);
+        return matchedUserIds;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+}
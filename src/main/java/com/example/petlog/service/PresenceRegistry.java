@@ -0,0 +1,263 @@
+package com.example.petlog.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionConnectEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 인메모리 접속 상태(presence) 관리
+ * - WebSocket 연결/해제 이벤트와 하트비트, REST 상태/위치 호출로 갱신
+ * - 연결된 세션이 없고 TTL 동안 신호가 없으면 오프라인
+ * - 사용자별 상태는 불변 값(Presence)이고 항상 Map.compute 로 교체하므로,
+ *   만료 판단과 제거가 같은 값에 대해 이루어짐 (그 사이 갱신되면 제거하지 않음)
+ * - 온라인/오프라인 전환은 PresenceFanout 으로 매칭 상대에게 전파
+ * - DB(pet_mates.is_online / last_active_at)에는 주기적으로 모아서 반영
+ *   (온라인/최근 접속은 JDBC 배치 1회, 오프라인 전환은 UPDATE ... IN 한 문장)
+ *
+ * WebSocket 으로 사용자를 식별하려면 STOMP CONNECT(또는 하트비트 SEND) 헤더에 userId 를 넣어야 함
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PresenceRegistry {
+
+    public static final String USER_ID_HEADER = "userId";
+
+    private static final int OFFLINE_CHUNK_SIZE = 1000;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final PresenceFanout presenceFanout;
+
+    @Value("${petmate.presence.ttl-seconds:90}")
+    private long ttlSeconds;
+
+    private final Map<Long, Presence> presences = new ConcurrentHashMap<>();
+    private final Map<String, Long> sessionUsers = new ConcurrentHashMap<>();
+
+    // DB 에 오프라인으로 반영할 사용자
+    private final Set<Long> wentOffline = ConcurrentHashMap.newKeySet();
+
+    // DB 에 온라인/최근 접속 시각을 반영할 사용자
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 기동 시 예전에 켜진 채로 남은 is_online 정리 (TTL 이 지난 사용자만)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resetStaleOnlineFlags() {
+        try {
+            int updated = jdbcTemplate.update(
+                    "UPDATE pet_mates SET is_online = false WHERE is_online = true " +
+                    "AND (last_active_at IS NULL OR last_active_at < :cutoff)",
+                    new MapSqlParameterSource("cutoff",
+                            Timestamp.valueOf(LocalDateTime.now().minusSeconds(ttlSeconds))));
+            log.info("오래된 온라인 상태 정리: {}건", updated);
+        } catch (Exception e) {
+            log.warn("오래된 온라인 상태 정리 실패", e);
+        }
+    }
+
+    @EventListener
+    public void onConnect(SessionConnectEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        Long userId = parseUserId(accessor.getFirstNativeHeader(USER_ID_HEADER));
+        String sessionId = accessor.getSessionId();
+        if (userId == null || sessionId == null) return;
+
+        boolean newSession = sessionUsers.put(sessionId, userId) == null;
+        touchPresence(userId, newSession ? 1 : 0);
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        Long userId = sessionUsers.remove(event.getSessionId());
+        if (userId == null) return;
+
+        // 이미 오프라인 처리된 사용자는 다시 온라인으로 만들지 않음
+        // 세션이 모두 끊겨도 TTL 동안은 온라인 유지 (짧은 재연결 대비)
+        long now = System.currentTimeMillis();
+        if (presences.computeIfPresent(userId,
+                (id, existing) -> new Presence(Math.max(0, existing.sessions() - 1), now)) != null) {
+            dirty.add(userId);
+        }
+    }
+
+    /**
+     * 세션 기준 하트비트 (CONNECT 때 userId 를 보내지 않았다면 이번 프레임 헤더의 userId 사용)
+     */
+    public void heartbeat(String sessionId, String userIdHeader) {
+        Long userId = sessionId != null ? sessionUsers.get(sessionId) : null;
+        if (userId == null) {
+            userId = parseUserId(userIdHeader);
+        }
+        if (userId != null) {
+            touch(userId);
+        }
+    }
+
+    /**
+     * 활동 신호 (온라인으로 표시하고 최근 접속 시각 갱신)
+     */
+    public void touch(Long userId) {
+        if (userId == null) return;
+        touchPresence(userId, 0);
+    }
+
+    /**
+     * 명시적 오프라인 (앱 종료 등)
+     * 다른 기기/탭의 WebSocket 세션이 열려 있으면 온라인 유지 (세션이 모두 끊긴 뒤 TTL 로 오프라인)
+     */
+    public void markOffline(Long userId) {
+        if (userId == null) return;
+        boolean[] removed = {false};
+        Presence remaining = presences.computeIfPresent(userId, (id, existing) -> {
+            if (existing.sessions() > 0) return existing;
+            removed[0] = true;
+            return null;
+        });
+        if (remaining != null) return;
+
+        if (removed[0]) {
+            presenceFanout.onPresenceChanged(userId, false);
+        }
+        wentOffline.add(userId);
+    }
+
+    public boolean isOnline(Long userId) {
+        Presence presence = userId != null ? presences.get(userId) : null;
+        return presence != null && !presence.isExpired(System.currentTimeMillis() - ttlSeconds * 1000);
+    }
+
+    /**
+     * 메모리에 있는 최근 접속 시각 (없으면 null)
+     */
+    public LocalDateTime lastActiveAt(Long userId) {
+        Presence presence = userId != null ? presences.get(userId) : null;
+        if (presence == null) return null;
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(presence.lastSeenMillis()), ZoneId.systemDefault());
+    }
+
+    /**
+     * TTL 이 지난 사용자를 오프라인 처리하고, 변경분을 DB 에 일괄 반영
+     */
+    @Scheduled(fixedDelayString = "${petmate.presence.flush-interval-ms:30000}")
+    public void flush() {
+        long expiredBefore = System.currentTimeMillis() - ttlSeconds * 1000;
+        presences.forEach((userId, presence) -> {
+            // 읽은 값 그대로일 때만 제거 (그 사이 신호가 와서 교체됐으면 유지)
+            if (presence.isExpired(expiredBefore)
+                    && presences.remove(userId, presence)) {
+                wentOffline.add(userId);
+                presenceFanout.onPresenceChanged(userId, false);
+            }
+        });
+
+        flushOffline();
+        flushOnline();
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private void flushOffline() {
+        List<Long> offline = new ArrayList<>();
+        for (Long userId : wentOffline) {
+            wentOffline.remove(userId);
+            // 그 사이 다시 접속했으면 오프라인으로 쓰지 않음
+            if (!presences.containsKey(userId)) offline.add(userId);
+        }
+
+        for (int from = 0; from < offline.size(); from += OFFLINE_CHUNK_SIZE) {
+            List<Long> chunk = offline.subList(from, Math.min(from + OFFLINE_CHUNK_SIZE, offline.size()));
+            try {
+                jdbcTemplate.update("UPDATE pet_mates SET is_online = false WHERE user_id IN (:userIds)",
+                        new MapSqlParameterSource("userIds", chunk));
+            } catch (Exception e) {
+                wentOffline.addAll(chunk);
+                log.warn("오프라인 상태 반영 실패 ({}건). 다음 주기에 재시도합니다.", chunk.size(), e);
+            }
+        }
+    }
+
+    private void flushOnline() {
+        List<Long> userIds = new ArrayList<>();
+        List<MapSqlParameterSource> params = new ArrayList<>();
+        for (Long userId : dirty) {
+            dirty.remove(userId);
+            Presence presence = presences.get(userId);
+            if (presence == null) continue;
+            userIds.add(userId);
+            params.add(new MapSqlParameterSource()
+                    .addValue("userId", userId)
+                    .addValue("lastActiveAt", new Timestamp(presence.lastSeenMillis())));
+        }
+        if (params.isEmpty()) return;
+
+        try {
+            jdbcTemplate.batchUpdate(
+                    "UPDATE pet_mates SET is_online = true, last_active_at = :lastActiveAt WHERE user_id = :userId",
+                    params.toArray(new MapSqlParameterSource[0]));
+        } catch (Exception e) {
+            dirty.addAll(userIds);
+            log.warn("접속 상태 반영 실패 ({}건). 다음 주기에 재시도합니다.", userIds.size(), e);
+        }
+    }
+
+    private void touchPresence(Long userId, int addedSessions) {
+        long now = System.currentTimeMillis();
+        long expiredBefore = now - ttlSeconds * 1000;
+        boolean[] cameOnline = {false};
+        presences.compute(userId, (id, existing) -> {
+            if (existing == null || existing.isExpired(expiredBefore)) {
+                cameOnline[0] = true;
+            }
+            int sessions = existing != null ? existing.sessions() : 0;
+            return new Presence(sessions + addedSessions, now);
+        });
+        dirty.add(userId);
+        if (cameOnline[0]) {
+            presenceFanout.onPresenceChanged(userId, true);
+        }
+    }
+
+    private static Long parseUserId(String value) {
+        if (value == null || value.isBlank()) return null;
+        try {
+            return Long.valueOf(value.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 사용자별 접속 상태 (불변, 바뀔 때마다 새 값으로 교체)
+     */
+    private record Presence(int sessions, long lastSeenMillis) {
+
+        private boolean isExpired(long expiredBefore) {
+            return sessions == 0 && lastSeenMillis < expiredBefore;
+        }
+    }
+}
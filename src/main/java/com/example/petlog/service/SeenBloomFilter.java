@@ -0,0 +1,140 @@
+package com.example.petlog.service;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * 사용자별 "이미 본 후보" Bloom 필터 (슬라이스 단위로 늘어나는 scalable 구조)
+ * - 슬라이스 1개 = 8192비트(1KB), 약 700건까지 오탐률 0.5% 이내
+ * - 슬라이스가 차면 새 슬라이스를 추가하고, 최대 개수를 넘으면 가장 오래된 슬라이스를 버림
+ *   -> 스와이프 수와 무관하게 사용자당 최대 4KB, 아주 오래전에 본 후보는 다시 노출될 수 있음
+ */
+final class SeenBloomFilter {
+
+    private static final int SLICE_BITS = 8192;
+    private static final int SLICE_WORDS = SLICE_BITS / 64;
+    private static final int SLICE_CAPACITY = 700;
+    private static final int HASH_COUNT = 7;
+    private static final int MAX_SLICES = 4;
+
+    // 가장 오래된 슬라이스가 앞, 현재 기록 중인 슬라이스가 뒤
+    private final Deque<Slice> slices = new ArrayDeque<>();
+
+    SeenBloomFilter() {
+        slices.addLast(new Slice());
+    }
+
+    synchronized void add(long userId) {
+        // 중복 확인은 현재 슬라이스만 (오래된 슬라이스 기준으로 건너뛰면 그 슬라이스가 버려질 때 함께 사라짐)
+        Slice current = slices.peekLast();
+        if (current.mightContain(userId)) return;
+
+        if (current.count >= SLICE_CAPACITY) {
+            if (slices.size() >= MAX_SLICES) {
+                slices.removeFirst();
+            }
+            current = new Slice();
+            slices.addLast(current);
+        }
+        current.add(userId);
+    }
+
+    synchronized boolean mightContain(long userId) {
+        return mightContainUnsafe(userId);
+    }
+
+    /**
+     * 조회용 복사본 (호출 시점 스냅샷이므로 락 없이 사용 가능)
+     */
+    synchronized SeenBloomFilter copy() {
+        SeenBloomFilter copy = new SeenBloomFilter();
+        copy.slices.clear();
+        for (Slice slice : slices) {
+            copy.slices.addLast(slice.copy());
+        }
+        return copy;
+    }
+
+    /**
+     * 저장 형식: [슬라이스 수][슬라이스별 (건수, long[128])]
+     */
+    synchronized byte[] toBytes() {
+        ByteBuffer buffer = ByteBuffer.allocate(4 + slices.size() * (4 + SLICE_WORDS * 8));
+        buffer.putInt(slices.size());
+        for (Slice slice : slices) {
+            buffer.putInt(slice.count);
+            for (long word : slice.words) {
+                buffer.putLong(word);
+            }
+        }
+        return buffer.array();
+    }
+
+    static SeenBloomFilter fromBytes(byte[] data) {
+        SeenBloomFilter filter = new SeenBloomFilter();
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        int sliceCount = buffer.getInt();
+        if (sliceCount <= 0 || sliceCount > MAX_SLICES
+                || data.length != 4 + sliceCount * (4 + SLICE_WORDS * 8)) {
+            throw new IllegalArgumentException("잘못된 Bloom 필터 데이터");
+        }
+
+        filter.slices.clear();
+        for (int s = 0; s < sliceCount; s++) {
+            Slice slice = new Slice();
+            slice.count = buffer.getInt();
+            for (int w = 0; w < SLICE_WORDS; w++) {
+                slice.words[w] = buffer.getLong();
+            }
+            filter.slices.addLast(slice);
+        }
+        return filter;
+    }
+
+    private boolean mightContainUnsafe(long userId) {
+        for (Slice slice : slices) {
+            if (slice.mightContain(userId)) return true;
+        }
+        return false;
+    }
+
+    // SplitMix64 마무리 함수 (연속된 userId 도 고르게 분산)
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    private static final class Slice {
+        private final long[] words = new long[SLICE_WORDS];
+        private int count;
+
+        void add(long userId) {
+            long h1 = mix(userId);
+            long h2 = mix(h1) | 1L;
+            for (int i = 0; i < HASH_COUNT; i++) {
+                int bit = (int) ((h1 + i * h2) & (SLICE_BITS - 1));
+                words[bit >>> 6] |= 1L << bit;
+            }
+            count++;
+        }
+
+        boolean mightContain(long userId) {
+            long h1 = mix(userId);
+            long h2 = mix(h1) | 1L;
+            for (int i = 0; i < HASH_COUNT; i++) {
+                int bit = (int) ((h1 + i * h2) & (SLICE_BITS - 1));
+                if ((words[bit >>> 6] & (1L << bit)) == 0) return false;
+            }
+            return true;
+        }
+
+        Slice copy() {
+            Slice copy = new Slice();
+            System.arraycopy(words, 0, copy.words, 0, SLICE_WORDS);
+            copy.count = count;
+            return copy;
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.petlog.service;
+
+import com.example.petlog.entity.PetMateSeenFilter;
+import com.example.petlog.repository.PetMateSeenFilterRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.LongPredicate;
+import java.util.stream.Collectors;
+
+/**
+ * 사용자별 "이미 본/넘긴 후보" 기록 (Bloom 필터, 사용자당 최대 4KB)
+ * - 최초 조회 시 pet_mate_seen_filters 에서 적재, 이후 메모리에서 갱신
+ * - 변경된 필터만 주기적으로 모아서 저장 (서버 종료 시에도 한 번 저장)
+ * - 한동안 쓰이지 않은 필터는 저장 후 메모리에서 내림
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SeenCandidateIndex {
+
+    private final PetMateSeenFilterRepository seenFilterRepository;
+
+    @Value("${petmate.seen.idle-minutes:60}")
+    private long idleMinutes;
+
+    private final Map<Long, Holder> filters = new ConcurrentHashMap<>();
+
+    /**
+     * 후보 제외용 판별자 반환 (호출 시점 스냅샷)
+     */
+    public LongPredicate excluder(Long userId) {
+        SeenBloomFilter snapshot = load(userId).filter.copy();
+        return snapshot::mightContain;
+    }
+
+    /**
+     * 본/넘긴 후보 기록
+     */
+    public void markSeen(Long userId, List<Long> candidateUserIds) {
+        if (candidateUserIds == null || candidateUserIds.isEmpty()) return;
+        Holder holder = load(userId);
+        for (Long candidateUserId : candidateUserIds) {
+            if (candidateUserId != null) {
+                holder.filter.add(candidateUserId);
+            }
+        }
+        holder.dirty = true;
+    }
+
+    @Scheduled(fixedDelayString = "${petmate.seen.flush-interval-ms:30000}")
+    public void flush() {
+        List<Long> dirtyUserIds = new ArrayList<>();
+        filters.forEach((userId, holder) -> {
+            if (holder.dirty) dirtyUserIds.add(userId);
+        });
+
+        if (!dirtyUserIds.isEmpty()) {
+            try {
+                Map<Long, PetMateSeenFilter> existing = seenFilterRepository.findByUserIdIn(dirtyUserIds).stream()
+                        .collect(Collectors.toMap(PetMateSeenFilter::getUserId, Function.identity(), (a, b) -> a));
+
+                List<PetMateSeenFilter> rows = new ArrayList<>(dirtyUserIds.size());
+                for (Long userId : dirtyUserIds) {
+                    Holder holder = filters.get(userId);
+                    if (holder == null) continue;
+                    // 직렬화 전에 플래그를 내려야 직렬화 도중의 기록도 다음 주기에 저장됨
+                    holder.dirty = false;
+
+                    PetMateSeenFilter row = existing.getOrDefault(userId,
+                            PetMateSeenFilter.builder().userId(userId).build());
+                    row.setData(holder.filter.toBytes());
+                    rows.add(row);
+                }
+                seenFilterRepository.saveAll(rows);
+                log.debug("본 후보 필터 저장: {}건", rows.size());
+            } catch (Exception e) {
+                dirtyUserIds.forEach(userId -> {
+                    Holder holder = filters.get(userId);
+                    if (holder != null) holder.dirty = true;
+                });
+                log.warn("본 후보 필터 저장 실패. 다음 주기에 재시도합니다.", e);
+            }
+        }
+
+        evictIdle();
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private void evictIdle() {
+        long idleSince = System.currentTimeMillis() - idleMinutes * 60_000;
+        Set<Long> idle = new HashSet<>();
+        filters.forEach((userId, holder) -> {
+            if (!holder.dirty && holder.lastAccessMillis < idleSince) idle.add(userId);
+        });
+        idle.forEach(userId -> filters.computeIfPresent(userId,
+                (id, holder) -> holder.dirty || holder.lastAccessMillis >= idleSince ? holder : null));
+    }
+
+    private Holder load(Long userId) {
+        Holder holder = filters.computeIfAbsent(userId, id -> new Holder(
+                seenFilterRepository.findByUserId(id)
+                        .map(row -> {
+                            try {
+                                return SeenBloomFilter.fromBytes(row.getData());
+                            } catch (RuntimeException e) {
+                                log.warn("본 후보 필터 데이터 손상 (UserId: {}). 새로 시작합니다.", id);
+                                return new SeenBloomFilter();
+                            }
+                        })
+                        .orElseGet(SeenBloomFilter::new)));
+        holder.lastAccessMillis = System.currentTimeMillis();
+        return holder;
+    }
+
+    private static final class Holder {
+        private final SeenBloomFilter filter;
+        private volatile boolean dirty;
+        private volatile long lastAccessMillis = System.currentTimeMillis();
+
+        private Holder(SeenBloomFilter filter) {
+            this.filter = filter;
+        }
+    }
+}
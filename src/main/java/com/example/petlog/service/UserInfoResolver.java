@@ -0,0 +1,120 @@
+package com.example.petlog.service;
+
+import com.example.petlog.client.UserServiceClient;
+import com.example.petlog.dto.response.UserInfoResponse;
+import feign.FeignException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 응답 하나에 필요한 사용자 정보를 모아서 한 번에 조회 (DataLoader 방식)
+ * - 호출 측은 필요한 userId 를 먼저 모은 뒤 resolveAll 한 번 호출 -> 중복 제거 후 일괄 API 1회
+ * - User Service 에 일괄 API 가 없으면(404/405/501) 개별 조회를 제한된 병렬도로 동시에 호출
+ *   (일괄 API 없음은 일정 시간 기억해서 매번 실패 호출을 하지 않음)
+ * - 조회 실패한 사용자는 결과에서 빠지고, 호출 측의 기본값 처리에 맡김
+ */
+@Slf4j
+@Component
+public class UserInfoResolver {
+
+    private static final int MAX_QUEUED_LOOKUPS = 1_000;
+    private static final long BULK_RETRY_MILLIS = 10 * 60_000;
+
+    private final UserServiceClient userServiceClient;
+    private final ThreadPoolExecutor executor;
+
+    // 일괄 API 가 없다고 판단한 시각 (0 이면 사용 가능)
+    private volatile long bulkUnsupportedAt;
+
+    public UserInfoResolver(UserServiceClient userServiceClient,
+                            @Value("${petmate.user-cache.parallelism:8}") int parallelism) {
+        this.userServiceClient = userServiceClient;
+        // 대기열이 가득 차면 요청 스레드에서 직접 호출 (느려질 뿐 실패하지 않음)
+        this.executor = new ThreadPoolExecutor(parallelism, parallelism, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(MAX_QUEUED_LOOKUPS), runnable -> {
+                    Thread thread = new Thread(runnable, "user-info-resolver");
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.CallerRunsPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * 사용자 한 명 조회 (실패 시 null)
+     */
+    public UserInfoResponse resolve(Long userId) {
+        if (userId == null) return null;
+        try {
+            return userServiceClient.getUserInfo(userId);
+        } catch (Exception e) {
+            log.warn("UserService 연동 실패 (ID: {}).", userId);
+            return null;
+        }
+    }
+
+    /**
+     * 여러 사용자 일괄 조회 (userId -> 사용자 정보, 조회 실패한 사용자는 빠짐)
+     */
+    public Map<Long, UserInfoResponse> resolveAll(Collection<Long> userIds) {
+        Set<Long> distinct = new LinkedHashSet<>();
+        for (Long userId : userIds) {
+            if (userId != null) distinct.add(userId);
+        }
+        if (distinct.isEmpty()) return Map.of();
+        if (distinct.size() == 1) {
+            Long userId = distinct.iterator().next();
+            UserInfoResponse userInfo = resolve(userId);
+            return userInfo != null ? Map.of(userId, userInfo) : Map.of();
+        }
+
+        Map<Long, UserInfoResponse> resolved = new HashMap<>();
+        if (isBulkAvailable()) {
+            try {
+                for (UserInfoResponse userInfo : userServiceClient.getUsersInfo(new ArrayList<>(distinct))) {
+                    if (userInfo != null && userInfo.getId() != null) resolved.put(userInfo.getId(), userInfo);
+                }
+                return resolved;
+            } catch (FeignException.NotFound | FeignException.MethodNotAllowed | FeignException.NotImplemented e) {
+                bulkUnsupportedAt = System.currentTimeMillis();
+                log.info("User Service 일괄 조회 API 없음. 개별 병렬 조회로 대체합니다.");
+            } catch (Exception e) {
+                log.warn("User Service 일괄 조회 실패 ({}명). 개별 병렬 조회로 대체합니다.", distinct.size());
+            }
+        }
+
+        // 개별 응답에는 id 가 없을 수 있으므로 요청한 userId 기준으로 매핑
+        Map<Long, CompletableFuture<UserInfoResponse>> futures = new LinkedHashMap<>();
+        for (Long userId : distinct) {
+            futures.put(userId, CompletableFuture.supplyAsync(() -> resolve(userId), executor));
+        }
+        futures.forEach((userId, future) -> {
+            UserInfoResponse userInfo = future.join();
+            if (userInfo != null) resolved.put(userId, userInfo);
+        });
+        return resolved;
+    }
+
+    private boolean isBulkAvailable() {
+        long unsupportedAt = bulkUnsupportedAt;
+        return unsupportedAt == 0 || System.currentTimeMillis() - unsupportedAt > BULK_RETRY_MILLIS;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
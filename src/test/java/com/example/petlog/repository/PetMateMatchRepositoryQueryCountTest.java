@@ -0,0 +1,141 @@
+package com.example.petlog.repository;
+
+import com.example.petlog.entity.PetMate;
+import com.example.petlog.entity.PetMateMatch;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 보낸/받은 요청, 매칭 목록 조회가 행 수와 관계없이 쿼리 1번으로 끝나는지 (N+1 회귀 방지)
+ * 실제 DB(DB_URL)가 필요하므로 기본 test 에서는 제외 - 실행: ./gradlew dbTest
+ */
+@Tag("db")
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class PetMateMatchRepositoryQueryCountTest {
+
+    private static final int FEW = 3;
+    private static final int MANY = 20;
+
+    @Autowired
+    private PetMateMatchRepository petMateMatchRepository;
+
+    @Autowired
+    private PetMateRepository petMateRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Statistics statistics;
+    private long nextUserId;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        // 기존 데이터와 겹치지 않는 userId 구간 (테스트 트랜잭션은 롤백됨)
+        nextUserId = 900_000_000L + (System.nanoTime() % 1_000_000) * 1_000;
+    }
+
+    @Test
+    void sentPendingRequestsUseOneStatementRegardlessOfRowCount() {
+        Long few = userWithRelations(FEW);
+        Long many = userWithRelations(MANY);
+
+        assertConstantStatements(
+                () -> petMateMatchRepository.findSentPendingRequestViews(few, Pageable.unpaged()),
+                () -> petMateMatchRepository.findSentPendingRequestViews(many, Pageable.unpaged()));
+    }
+
+    @Test
+    void receivedPendingRequestsUseOneStatementRegardlessOfRowCount() {
+        Long few = userWithRelations(FEW);
+        Long many = userWithRelations(MANY);
+
+        assertConstantStatements(
+                () -> petMateMatchRepository.findPendingRequestViews(few, Pageable.unpaged()),
+                () -> petMateMatchRepository.findPendingRequestViews(many, Pageable.unpaged()));
+    }
+
+    @Test
+    void matchesUseOneStatementRegardlessOfRowCount() {
+        Long few = userWithRelations(FEW);
+        Long many = userWithRelations(MANY);
+
+        assertConstantStatements(
+                () -> petMateMatchRepository.findMatchViews(few, Pageable.unpaged()),
+                () -> petMateMatchRepository.findMatchViews(many, Pageable.unpaged()));
+        // 페이지 조회도 카운트 쿼리 없이 1번
+        assertConstantStatements(
+                () -> petMateMatchRepository.findMatchViews(few, PageRequest.of(0, 2)),
+                () -> petMateMatchRepository.findMatchViews(many, PageRequest.of(1, 5)));
+    }
+
+    private void assertConstantStatements(Supplier<List<?>> fewRows, Supplier<List<?>> manyRows) {
+        long fewStatements = countStatements(fewRows);
+        long manyStatements = countStatements(manyRows);
+
+        assertThat(fewStatements).isEqualTo(1);
+        assertThat(manyStatements).isEqualTo(fewStatements);
+    }
+
+    private long countStatements(Supplier<List<?>> query) {
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        assertThat(query.get()).isNotEmpty();
+        return statistics.getPrepareStatementCount();
+    }
+
+    /**
+     * count 명씩 보낸 요청 / 받은 요청 / 매칭(양방향 행)을 가진 사용자 생성
+     */
+    private Long userWithRelations(int count) {
+        Long userId = profile();
+        for (int i = 0; i < count; i++) {
+            petMateMatchRepository.save(match(userId, profile(), PetMateMatch.MatchStatus.PENDING));
+            petMateMatchRepository.save(match(profile(), userId, PetMateMatch.MatchStatus.PENDING));
+
+            Long matched = profile();
+            petMateMatchRepository.save(match(userId, matched, PetMateMatch.MatchStatus.MATCHED));
+            petMateMatchRepository.save(match(matched, userId, PetMateMatch.MatchStatus.MATCHED));
+        }
+        return userId;
+    }
+
+    private Long profile() {
+        Long userId = nextUserId++;
+        petMateRepository.save(PetMate.builder()
+                .userId(userId)
+                .userName("user" + userId)
+                .userGender("미설정")
+                .petName("반려동물")
+                .petBreed("믹스견")
+                .build());
+        return userId;
+    }
+
+    private static PetMateMatch match(Long fromUserId, Long toUserId, PetMateMatch.MatchStatus status) {
+        return PetMateMatch.builder()
+                .fromUserId(fromUserId)
+                .toUserId(toUserId)
+                .status(status)
+                .matchedAt(status == PetMateMatch.MatchStatus.MATCHED ? LocalDateTime.now() : null)
+                .build();
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.petlog.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ChatRoomLastMessageBufferTest {
+
+    private static final long ROOM_ID = 1L;
+
+    @Test
+    void concurrentSendersInSameRoomKeepNewestMessageWithFewUpdates() throws Exception {
+        FakeChatRoomTable table = new FakeChatRoomTable();
+        ChatRoomLastMessageBuffer buffer = new ChatRoomLastMessageBuffer(table, new SimpleMeterRegistry());
+
+        int senders = 16;
+        int messagesPerSender = 2_000;
+        AtomicLong ids = new AtomicLong();
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean sending = new AtomicBoolean(true);
+
+        // 전송 중에도 계속 flush (스케줄러 역할)
+        Thread flusher = new Thread(() -> {
+            while (sending.get()) {
+                buffer.flush();
+                Thread.onSpinWait();
+            }
+        });
+        flusher.start();
+
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < senders; t++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < messagesPerSender; i++) {
+                    // id 부여와 적재 사이에 다른 스레드가 끼어들 수 있음 (커밋 순서 != id 순서)
+                    long id = ids.incrementAndGet();
+                    buffer.offer(ROOM_ID, id, "m" + id, LocalDateTime.now());
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        sending.set(false);
+        flusher.join();
+        buffer.flush();
+
+        long total = (long) senders * messagesPerSender;
+        assertThat(table.lastMessageId(ROOM_ID)).isEqualTo(total);
+        assertThat(table.lastMessage(ROOM_ID)).isEqualTo("m" + total);
+        assertThat(buffer.pendingOf(ROOM_ID)).isNull();
+        assertThat((long) table.updateStatements.get()).isLessThan(total);
+    }
+
+    @Test
+    void failedFlushKeepsNewestPendingValue() {
+        FakeChatRoomTable table = new FakeChatRoomTable();
+        ChatRoomLastMessageBuffer buffer = new ChatRoomLastMessageBuffer(table, new SimpleMeterRegistry());
+
+        buffer.offer(ROOM_ID, 5L, "m5", LocalDateTime.now());
+        table.failNext.set(true);
+        buffer.flush();
+        buffer.offer(ROOM_ID, 3L, "m3", LocalDateTime.now());
+
+        assertThat(buffer.pendingOf(ROOM_ID).messageId()).isEqualTo(5L);
+
+        buffer.flush();
+        assertThat(table.lastMessage(ROOM_ID)).isEqualTo("m5");
+    }
+
+    @Test
+    void pendingValueStaysVisibleUntilBatchUpdateFinishes() {
+        FakeChatRoomTable table = new FakeChatRoomTable();
+        ChatRoomLastMessageBuffer buffer = new ChatRoomLastMessageBuffer(table, new SimpleMeterRegistry());
+
+        buffer.offer(ROOM_ID, 5L, "m5", LocalDateTime.now());
+        List<Long> visibleDuringUpdate = new ArrayList<>();
+        table.duringUpdate = () -> {
+            visibleDuringUpdate.add(buffer.pendingOf(ROOM_ID).messageId());
+            // 반영 중에 더 최근 메시지 도착
+            buffer.offer(ROOM_ID, 6L, "m6", LocalDateTime.now());
+        };
+        buffer.flush();
+        table.duringUpdate = null;
+
+        assertThat(visibleDuringUpdate).containsExactly(5L);
+        assertThat(table.lastMessage(ROOM_ID)).isEqualTo("m5");
+        assertThat(buffer.pendingOf(ROOM_ID).messageId()).isEqualTo(6L);
+
+        buffer.flush();
+        assertThat(table.lastMessage(ROOM_ID)).isEqualTo("m6");
+        assertThat(buffer.pendingOf(ROOM_ID)).isNull();
+    }
+
+    /**
+     * chat_room 한 행씩을 흉내 내는 JdbcTemplate (UPDATE 의 last_message_id 조건을 그대로 적용)
+     */
+    private static final class FakeChatRoomTable extends JdbcTemplate {
+
+        private final Map<Long, Object[]> rows = new ConcurrentHashMap<>();
+        private final AtomicInteger updateStatements = new AtomicInteger();
+        private final AtomicBoolean failNext = new AtomicBoolean();
+        private volatile Runnable duringUpdate;
+
+        @Override
+        public int[] batchUpdate(String sql, List<Object[]> batchArgs) {
+            if (failNext.getAndSet(false)) {
+                throw new IllegalStateException("DB 연결 실패");
+            }
+            Runnable hook = duringUpdate;
+            if (hook != null) {
+                hook.run();
+            }
+            int[] counts = new int[batchArgs.size()];
+            for (int i = 0; i < batchArgs.size(); i++) {
+                // [last_message, last_message_at, last_message_id, id, last_message_id 조건]
+                Object[] args = batchArgs.get(i);
+                long messageId = (Long) args[4];
+                boolean[] updated = {false};
+                rows.compute((Long) args[3], (id, row) -> {
+                    if (row != null && (Long) row[2] >= messageId) return row;
+                    updated[0] = true;
+                    return args;
+                });
+                counts[i] = updated[0] ? 1 : 0;
+            }
+            updateStatements.addAndGet(batchArgs.size());
+            return counts;
+        }
+
+        private Long lastMessageId(long roomId) {
+            return (Long) rows.get(roomId)[2];
+        }
+
+        private String lastMessage(long roomId) {
+            return (String) rows.get(roomId)[0];
+        }
+    }
+}
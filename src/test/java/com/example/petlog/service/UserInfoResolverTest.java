@@ -0,0 +1,127 @@
+package com.example.petlog.service;
+
+import com.example.petlog.client.CachingUserServiceClient;
+import com.example.petlog.client.UserServiceClient;
+import com.example.petlog.dto.response.UserInfoResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserInfoResolverTest {
+
+    private static final int PARALLELISM = 3;
+
+    private final FakeUserService userService = new FakeUserService();
+    private final CachingUserServiceClient cachingClient =
+            new CachingUserServiceClient(userService, new SimpleMeterRegistry(), 1_000, 60, 600);
+    private final UserInfoResolver resolver = new UserInfoResolver(cachingClient, PARALLELISM);
+
+    @AfterEach
+    void tearDown() {
+        resolver.shutdown();
+    }
+
+    @Test
+    void coldCacheUsesOneBatchCallForDistinctUsers() {
+        Map<Long, UserInfoResponse> resolved = resolver.resolveAll(List.of(1L, 2L, 3L, 2L, 1L));
+
+        assertThat(resolved).containsOnlyKeys(1L, 2L, 3L);
+        assertThat(resolved.get(2L).getUsername()).isEqualTo("user2");
+        assertThat(userService.batchCalls.get()).isEqualTo(1);
+        assertThat(userService.batchRequests).containsExactly(List.of(1L, 2L, 3L));
+        assertThat(userService.singleCalls.get()).isZero();
+    }
+
+    @Test
+    void warmCacheMakesNoRemoteCalls() {
+        resolver.resolveAll(List.of(1L, 2L, 3L));
+        userService.reset();
+
+        Map<Long, UserInfoResponse> resolved = resolver.resolveAll(List.of(3L, 2L, 1L));
+
+        assertThat(resolved).containsOnlyKeys(1L, 2L, 3L);
+        assertThat(userService.batchCalls.get()).isZero();
+        assertThat(userService.singleCalls.get()).isZero();
+    }
+
+    @Test
+    void failedBatchFallsBackToBoundedParallelSingleCalls() {
+        userService.failBatch.set(true);
+        List<Long> userIds = new ArrayList<>();
+        for (long userId = 1; userId <= 12; userId++) {
+            userIds.add(userId);
+        }
+
+        Map<Long, UserInfoResponse> resolved = resolver.resolveAll(userIds);
+
+        assertThat(resolved).hasSize(userIds.size());
+        assertThat(userService.batchCalls.get()).isEqualTo(1);
+        assertThat(userService.singleCalls.get()).isEqualTo(userIds.size());
+        // 동시에 여러 건을 호출하되 병렬도를 넘지 않음 (대기열이 차면 호출 스레드가 한 건 더 맡을 수 있음)
+        assertThat(userService.maxConcurrentSingleCalls.get()).isBetween(2, PARALLELISM + 1);
+
+        // 개별 조회 결과도 캐시되어 다음 조회는 원격 호출 없음
+        userService.reset();
+        assertThat(resolver.resolveAll(userIds)).hasSize(userIds.size());
+        assertThat(userService.batchCalls.get()).isZero();
+        assertThat(userService.singleCalls.get()).isZero();
+    }
+
+    /**
+     * 호출 수와 동시 호출 수를 기록하는 User Service (개별 조회는 응답이 느린 것처럼 잠깐 대기)
+     */
+    private static final class FakeUserService implements UserServiceClient {
+
+        private final AtomicInteger batchCalls = new AtomicInteger();
+        private final List<List<Long>> batchRequests = new ArrayList<>();
+        private final AtomicInteger singleCalls = new AtomicInteger();
+        private final AtomicInteger concurrentSingleCalls = new AtomicInteger();
+        private final AtomicInteger maxConcurrentSingleCalls = new AtomicInteger();
+        private final AtomicBoolean failBatch = new AtomicBoolean();
+
+        @Override
+        public boolean checkUserExists(Long userId) {
+            return true;
+        }
+
+        @Override
+        public UserInfoResponse getUserInfo(Long userId) {
+            singleCalls.incrementAndGet();
+            maxConcurrentSingleCalls.accumulateAndGet(concurrentSingleCalls.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(30);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                concurrentSingleCalls.decrementAndGet();
+            }
+            // 개별 API 응답에는 id 가 없음
+            return UserInfoResponse.builder().username("user" + userId).build();
+        }
+
+        @Override
+        public synchronized List<UserInfoResponse> getUsersInfo(List<Long> userIds) {
+            batchCalls.incrementAndGet();
+            batchRequests.add(userIds.stream().sorted().toList());
+            if (failBatch.get()) {
+                throw new IllegalStateException("User Service 일괄 조회 실패");
+            }
+            return userIds.stream()
+                    .map(userId -> UserInfoResponse.builder().id(userId).username("user" + userId).build())
+                    .toList();
+        }
+
+        private void reset() {
+            batchCalls.set(0);
+            singleCalls.set(0);
+        }
+    }
+}